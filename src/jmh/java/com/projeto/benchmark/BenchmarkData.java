@@ -0,0 +1,85 @@
+package com.projeto.benchmark;
+
+import com.projeto.database.DatabaseConnection;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+
+/**
+ * Popula o H2 embarcado com uma massa de pedidos para os benchmarks.
+ * Insere direto por JDBC em lote (sem passar pelo serviço) para que a
+ * carga de 1M pedidos leve segundos, não minutos.
+ */
+final class BenchmarkData {
+
+    private static final int BATCH_SIZE = 5_000;
+    private static final String[] CUSTOMERS = {"Maria Santos", "João Silva", "Ana Souza", "Pedro Lima", "Carla Dias"};
+    private static final String[] PRODUCTS = {"Notebook", "Mouse", "Teclado", "Monitor", "Cadeira", "Headset"};
+
+    private BenchmarkData() {
+    }
+
+    static void load(int orders, int itemsPerOrder) throws SQLException {
+        DatabaseConnection.initialize();
+
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            try (Statement stmt = conn.createStatement()) {
+                stmt.execute("DELETE FROM order_items");
+                stmt.execute("DELETE FROM orders");
+            }
+
+            conn.setAutoCommit(false);
+            LocalDateTime base = LocalDateTime.now().minusDays(365);
+
+            try (PreparedStatement insertOrder = conn.prepareStatement(
+                         "INSERT INTO orders (id, customer_name, total_cents, status, created_at) VALUES (?, ?, ?, ?, ?)");
+                 PreparedStatement insertItem = conn.prepareStatement(
+                         "INSERT INTO order_items (order_id, product, quantity, unit_price_cents, created_at) VALUES (?, ?, ?, ?, ?)")) {
+
+                for (long id = 1; id <= orders; id++) {
+                    Timestamp createdAt = Timestamp.valueOf(base.plusSeconds(id * 30));
+                    long total = 0;
+
+                    for (int i = 0; i < itemsPerOrder; i++) {
+                        int quantity = 1 + (int) ((id + i) % 5);
+                        long price = 990 + ((id * 31 + i * 17) % 50_000);
+                        total += price * quantity;
+
+                        insertItem.setLong(1, id);
+                        insertItem.setString(2, PRODUCTS[(int) ((id + i) % PRODUCTS.length)]);
+                        insertItem.setInt(3, quantity);
+                        insertItem.setLong(4, price);
+                        insertItem.setTimestamp(5, createdAt);
+                        insertItem.addBatch();
+                    }
+
+                    insertOrder.setLong(1, id);
+                    insertOrder.setString(2, CUSTOMERS[(int) (id % CUSTOMERS.length)]);
+                    insertOrder.setLong(3, total);
+                    insertOrder.setInt(4, (int) (id % 3));
+                    insertOrder.setTimestamp(5, createdAt);
+                    insertOrder.addBatch();
+
+                    if (id % BATCH_SIZE == 0) {
+                        insertOrder.executeBatch();
+                        insertItem.executeBatch();
+                        conn.commit();
+                    }
+                }
+
+                insertOrder.executeBatch();
+                insertItem.executeBatch();
+                conn.commit();
+            }
+
+            try (Statement stmt = conn.createStatement()) {
+                stmt.execute("ALTER TABLE orders ALTER COLUMN id RESTART WITH " + (orders + 1));
+                stmt.execute("ANALYZE");
+            }
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.projeto.benchmark;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.google.gson.stream.JsonReader;
+import com.projeto.config.AppContext;
+import com.projeto.controller.AddItemRequest;
+import com.projeto.model.Order;
+import com.projeto.model.OrderItem;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serialização Gson usada pelos controllers: um pedido, uma página de
+ * pedidos e a decodificação do corpo do POST de item.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JsonBenchmark {
+
+    @Param({"3", "20"})
+    public int itemsPerOrder;
+
+    private Gson gson;
+    private Order order;
+    private List<Order> page;
+    private byte[] itemBytes;
+
+    @Setup
+    public void setUp() {
+        gson = AppContext.createGson(false);
+        page = new ArrayList<>();
+
+        for (long id = 1; id <= 50; id++) {
+            Order o = new Order("Cliente " + id);
+            o.setId(id);
+            o.setCreatedAt(LocalDateTime.of(2025, 12, 13, 10, 0).plusMinutes(id));
+
+            for (int i = 0; i < itemsPerOrder; i++) {
+                OrderItem item = new OrderItem(id, "Produto " + i, 1 + i % 4, 1_990 + i * 100L);
+                item.setId(id * 100 + i);
+                item.setCreatedAt(o.getCreatedAt());
+                o.addItem(item);
+            }
+
+            page.add(o);
+        }
+
+        order = page.get(0);
+        itemBytes = "{\"product\":\"Notebook Dell\",\"quantity\":2,\"unitPrice\":3500.00}"
+                .getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public String serializeOrder() {
+        return gson.toJson(order);
+    }
+
+    @Benchmark
+    public String serializePage() {
+        return gson.toJson(page);
+    }
+
+    /**
+     * Caminho antigo dos controllers (String + árvore JsonObject), mantido para comparação.
+     */
+    @Benchmark
+    public JsonObject parseItemBodyTree() {
+        return JsonParser.parseString(new String(itemBytes, StandardCharsets.UTF_8)).getAsJsonObject();
+    }
+
+    @Benchmark
+    public AddItemRequest decodeItemBody() throws IOException {
+        try (JsonReader reader = new JsonReader(
+                new InputStreamReader(new ByteArrayInputStream(itemBytes), StandardCharsets.UTF_8))) {
+            return AddItemRequest.read(reader);
+        }
+    }
+}
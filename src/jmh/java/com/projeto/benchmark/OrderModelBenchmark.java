@@ -0,0 +1,40 @@
+package com.projeto.benchmark;
+
+import com.projeto.model.Order;
+import com.projeto.model.OrderItem;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Order.calculateTotal(). Rode com {@code -prof gc} para conferir que a
+ * soma não aloca (gc.alloc.rate.norm ≈ 0 B/op).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OrderModelBenchmark {
+
+    @Param({"10", "1000"})
+    public int items;
+
+    private Order order;
+
+    @Setup
+    public void setUp() {
+        order = new Order("Benchmark");
+
+        for (int i = 0; i < items; i++) {
+            order.getItems().add(new OrderItem(1L, "Produto " + i, 1 + i % 5, 990 + i));
+        }
+    }
+
+    @Benchmark
+    public long calculateTotal() {
+        order.calculateTotal();
+        return order.getTotalCents();
+    }
+}
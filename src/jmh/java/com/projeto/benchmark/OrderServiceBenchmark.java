@@ -0,0 +1,90 @@
+package com.projeto.benchmark;
+
+import com.projeto.cache.OrderCache;
+import com.projeto.database.DatabaseConnection;
+import com.projeto.model.Order;
+import com.projeto.model.OrderItem;
+import com.projeto.repository.OrderCursor;
+import com.projeto.repository.OrderItemRepository;
+import com.projeto.repository.OrderPage;
+import com.projeto.repository.OrderQuery;
+import com.projeto.repository.OrderRepository;
+import com.projeto.service.OrderServiceImpl;
+import org.openjdk.jmh.annotations.*;
+
+import java.sql.SQLException;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serviço + repositórios contra o H2 em memória, com 1k, 100k e 1M pedidos.
+ *
+ * mvn -Pjmh test-compile exec:exec -Djmh.args="OrderServiceBenchmark -p orders=1000"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx4g", "-Dlog.level=WARN"})
+public class OrderServiceBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    public int orders;
+
+    @Param({"3"})
+    public int itemsPerOrder;
+
+    private OrderServiceImpl uncached;
+    private OrderServiceImpl cached;
+    private OrderQuery middlePage;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        BenchmarkData.load(orders, itemsPerOrder);
+
+        OrderRepository orderRepo = new OrderRepository();
+        OrderItemRepository itemRepo = new OrderItemRepository();
+        uncached = new OrderServiceImpl(orderRepo, itemRepo, new OrderCache(0, 0));
+        cached = new OrderServiceImpl(orderRepo, itemRepo, new OrderCache(orders, 0));
+
+        Order middle = orderRepo.findById((long) orders / 2).orElseThrow();
+        middlePage = new OrderQuery(OrderQuery.DEFAULT_LIMIT,
+                new OrderCursor(middle.getCreatedAt(), middle.getId()), null, null, null, null, true);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        DatabaseConnection.closeConnection();
+    }
+
+    private long randomId() {
+        return ThreadLocalRandom.current().nextLong(1, orders + 1);
+    }
+
+    @Benchmark
+    public OrderPage listOrdersFirstPage() throws SQLException {
+        return uncached.listOrders(OrderQuery.firstPage());
+    }
+
+    @Benchmark
+    public OrderPage listOrdersMiddlePage() throws SQLException {
+        return uncached.listOrders(middlePage);
+    }
+
+    @Benchmark
+    public Optional<Order> findOrderById() throws SQLException {
+        return uncached.findOrderById(randomId());
+    }
+
+    @Benchmark
+    public Optional<Order> findOrderByIdCached() throws SQLException {
+        return cached.findOrderById(randomId());
+    }
+
+    @Benchmark
+    public OrderItem addItem() throws SQLException {
+        return uncached.addItem(randomId(), "Cabo HDMI", 2, 4_990);
+    }
+}
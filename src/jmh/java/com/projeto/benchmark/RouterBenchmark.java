@@ -0,0 +1,40 @@
+package com.projeto.benchmark;
+
+import com.projeto.config.AppContext;
+import com.projeto.routes.Router;
+import com.projeto.routes.Routes;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Casamento de rotas na tabela real de {@link Routes}. As requisições são
+ * OPTIONS (percorre a árvore e responde sem chamar handler) e um caminho
+ * inexistente (404), então nada aqui toca o banco.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Dlog.level=WARN")
+public class RouterBenchmark {
+
+    @Param({"/orders", "/orders/12345", "/orders/12345/items/bulk", "/items/99", "/nao/existe"})
+    public String path;
+
+    private Router router;
+
+    @Setup
+    public void setUp() {
+        router = Routes.build(null, new AppContext());
+    }
+
+    @Benchmark
+    public int match() throws IOException {
+        StubExchange exchange = new StubExchange("OPTIONS", path);
+        router.handle(exchange);
+        return exchange.getResponseCode();
+    }
+}
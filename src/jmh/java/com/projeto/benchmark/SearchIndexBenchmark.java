@@ -0,0 +1,60 @@
+package com.projeto.benchmark;
+
+import com.projeto.changes.ChangeLog;
+import com.projeto.changes.ChangeType;
+import com.projeto.model.Order;
+import com.projeto.model.OrderItem;
+import com.projeto.repository.OrderItemRepository;
+import com.projeto.repository.OrderRepository;
+import com.projeto.search.SearchField;
+import com.projeto.search.SearchIndex;
+import com.projeto.search.SearchResult;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Buscas no {@link SearchIndex} carregado da massa do {@link BenchmarkData}.
+ * O vocabulário da massa é pequeno (5 clientes, 6 produtos), então cada termo
+ * casa com uma fração grande dos pedidos: é o pior caso do índice. "zuleica"
+ * e "cafet*" casam só com um pedido extra, como numa busca típica.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Dlog.level=WARN")
+public class SearchIndexBenchmark {
+
+    @Param({"10000"})
+    public int orders;
+
+    @Param({"zuleica", "cafet*", "notebook", "maria notebook", "cad*", "santos mon* head*"})
+    public String query;
+
+    private SearchIndex index;
+
+    @Setup
+    public void setUp() throws Exception {
+        BenchmarkData.load(orders, 3);
+        index = new SearchIndex();
+        ChangeLog changes = new ChangeLog(1024);
+        changes.addListener(index);
+        index.rebuild(new OrderRepository(), new OrderItemRepository(), changes);
+
+        Order order = new Order("Zuleica Prado");
+        order.setId(orders + 1L);
+        changes.append(ChangeType.ORDER_CREATED, order.getId(), order.getVersion(), order, null);
+
+        OrderItem item = new OrderItem(order.getId(), "Cafeteira italiana", 1, 15_900);
+        item.setId(Long.MAX_VALUE);
+        changes.append(ChangeType.ITEMS_ADDED, order.getId(), order.getVersion(), order, List.of(item));
+    }
+
+    @Benchmark
+    public SearchResult search() {
+        return index.search(query, SearchField.ALL, 50);
+    }
+}
@@ -0,0 +1,166 @@
+package com.projeto.loadtest;
+
+import com.projeto.metrics.LatencyHistogram;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latências e erros por operação. Reaproveita o {@link LatencyHistogram}
+ * da aplicação (buckets log-lineares, sem lock).
+ *
+ * Correção de omissão coordenada: no modo open a latência já é medida a
+ * partir do instante planejado de envio. No modo closed o relatório traz
+ * também a versão corrigida
+ * ({@link LatencyHistogram#copyCorrectedForCoordinatedOmission}), usando
+ * como intervalo esperado a latência média medida, já que cada usuário
+ * envia a próxima requisição assim que recebe a resposta.
+ */
+final class LoadResults {
+
+    private static final double[] QUANTILES = {0.5, 0.9, 0.99, 0.999, 0.9999, 1.0};
+    private static final String[] QUANTILE_NAMES = {"p50", "p90", "p99", "p999", "p9999", "max"};
+
+    private final Map<Operation, LatencyHistogram> raw = new EnumMap<>(Operation.class);
+    private final Map<Operation, LongAdder> errors = new EnumMap<>(Operation.class);
+    private final LatencyHistogram allRaw = new LatencyHistogram();
+    private final LongAdder sessions = new LongAdder();
+    private final LongAdder droppedSessions = new LongAdder();
+
+    LoadResults() {
+        for (Operation op : Operation.values()) {
+            raw.put(op, new LatencyHistogram());
+            errors.put(op, new LongAdder());
+        }
+    }
+
+    void record(Operation op, long latencyNanos, boolean ok) {
+        raw.get(op).recordNanos(latencyNanos);
+        allRaw.recordNanos(latencyNanos);
+
+        if (!ok) {
+            errors.get(op).increment();
+        }
+    }
+
+    /**
+     * Intervalo esperado entre envios de um usuário no modo closed: a
+     * latência média. No modo open não há correção (0).
+     */
+    private long expectedIntervalMicros(LoadTestConfig config) {
+        long count = allRaw.count();
+        return config.isOpen() || count == 0 ? 0 : allRaw.sumMicros() / count;
+    }
+
+    private LatencyHistogram corrected(LatencyHistogram histogram, LoadTestConfig config) {
+        return histogram.copyCorrectedForCoordinatedOmission(expectedIntervalMicros(config));
+    }
+
+    void sessionCompleted() {
+        sessions.increment();
+    }
+
+    /**
+     * Modo open: sessão que nem pôde ser iniciada (ex.: limite de sessões
+     * abertas atingido). Conta como erro de capacidade do gerador.
+     */
+    void sessionDropped() {
+        droppedSessions.increment();
+    }
+
+    String toText(LoadTestConfig config, double seconds) {
+        StringBuilder sb = new StringBuilder();
+        long requests = allRaw.count();
+        long errorCount = totalErrors();
+
+        sb.append(String.format(Locale.ROOT, "%nModo %s, %.1f s medidos%n", config.mode(), seconds));
+        sb.append(String.format(Locale.ROOT, "Sessões: %d (%.1f/s), descartadas: %d%n",
+                sessions.sum(), sessions.sum() / seconds, droppedSessions.sum()));
+        sb.append(String.format(Locale.ROOT, "Requisições: %d (%.1f/s), erros: %d (%.3f%%)%n%n",
+                requests, requests / seconds, errorCount, requests == 0 ? 0 : 100.0 * errorCount / requests));
+
+        sb.append(String.format(Locale.ROOT, "%-10s %9s %7s", "operação", "reqs", "erros"));
+        for (String name : QUANTILE_NAMES) {
+            sb.append(String.format(Locale.ROOT, " %9s", name + " ms"));
+        }
+        sb.append('\n');
+
+        for (Operation op : Operation.values()) {
+            appendRow(sb, op.name(), raw.get(op), errors.get(op).sum());
+        }
+        appendRow(sb, "TOTAL", allRaw, errorCount);
+
+        if (expectedIntervalMicros(config) > 0) {
+            sb.append(String.format(Locale.ROOT, "%nCorrigido (omissão coordenada, intervalo esperado %.3f ms):%n",
+                    expectedIntervalMicros(config) / 1_000.0));
+            for (Operation op : Operation.values()) {
+                appendRow(sb, op.name(), corrected(raw.get(op), config), errors.get(op).sum());
+            }
+            appendRow(sb, "TOTAL", corrected(allRaw, config), errorCount);
+        }
+
+        return sb.toString();
+    }
+
+    void writeJson(LoadTestConfig config, double seconds, Path path) throws IOException {
+        StringBuilder sb = new StringBuilder("{\n");
+        long requests = allRaw.count();
+
+        sb.append(String.format(Locale.ROOT,
+                "  \"mode\": \"%s\", \"concurrency\": %d, \"rate\": %d, \"itemsPerSession\": %d,%n",
+                config.mode(), config.concurrency(), config.rate(), config.items()));
+        sb.append(String.format(Locale.ROOT,
+                "  \"seconds\": %.3f, \"sessions\": %d, \"droppedSessions\": %d, \"requests\": %d, " +
+                "\"throughput\": %.2f, \"errors\": %d, \"expectedIntervalMs\": %.3f,%n",
+                seconds, sessions.sum(), droppedSessions.sum(), requests, requests / seconds,
+                totalErrors(), expectedIntervalMicros(config) / 1_000.0));
+
+        sb.append("  \"operations\": {\n");
+        Operation[] ops = Operation.values();
+        for (int i = 0; i < ops.length; i++) {
+            Operation op = ops[i];
+            sb.append("    \"").append(op.name()).append("\": {\"errors\": ").append(errors.get(op).sum())
+                    .append(", \"raw\": ").append(json(raw.get(op)))
+                    .append(", \"corrected\": ").append(json(corrected(raw.get(op), config))).append('}')
+                    .append(i + 1 < ops.length ? ",\n" : "\n");
+        }
+        sb.append("  },\n");
+        sb.append("  \"total\": {\"raw\": ").append(json(allRaw))
+                .append(", \"corrected\": ").append(json(corrected(allRaw, config))).append("}\n}\n");
+
+        if (path.getParent() != null) {
+            Files.createDirectories(path.getParent());
+        }
+        Files.writeString(path, sb.toString());
+    }
+
+    private long totalErrors() {
+        long total = 0;
+        for (LongAdder adder : errors.values()) {
+            total += adder.sum();
+        }
+        return total;
+    }
+
+    private static void appendRow(StringBuilder sb, String name, LatencyHistogram histogram, long errorCount) {
+        sb.append(String.format(Locale.ROOT, "%-10s %9d %7d", name, histogram.count(), errorCount));
+        for (long micros : histogram.percentilesMicros(QUANTILES)) {
+            sb.append(String.format(Locale.ROOT, " %9.3f", micros / 1_000.0));
+        }
+        sb.append('\n');
+    }
+
+    private static String json(LatencyHistogram histogram) {
+        StringBuilder sb = new StringBuilder("{\"count\": ").append(histogram.count());
+        long[] values = histogram.percentilesMicros(QUANTILES);
+        for (int i = 0; i < values.length; i++) {
+            sb.append(String.format(Locale.ROOT, ", \"%sMs\": %.3f", QUANTILE_NAMES[i], values[i] / 1_000.0));
+        }
+        return sb.append('}').toString();
+    }
+}
@@ -0,0 +1,168 @@
+package com.projeto.loadtest;
+
+import com.projeto.Main;
+import com.projeto.logging.Log;
+import com.projeto.server.RunningServer;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Gerador de carga HTTP de ponta a ponta.
+ *
+ * Sem --url, sobe a API no mesmo processo ({@link Main#start}, porta livre),
+ * com a configuração vinda das propriedades de sistema (server.mode,
+ * db.pool.size, ...), e dispara sessões de compra contra ela:
+ * <ul>
+ *     <li>closed: {@code --concurrency} usuários, cada um emendando sessões;</li>
+ *     <li>open: {@code --rate} sessões por segundo, em horários fixos, independente
+ *     de quanto o servidor demore (sem omissão coordenada).</li>
+ * </ul>
+ */
+public final class LoadTest {
+
+    /** Limite de sessões abertas simultâneas no modo open, para não esgotar a memória do gerador. */
+    private static final int MAX_OPEN_SESSIONS = 20_000;
+
+    private LoadTest() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadTestConfig config = LoadTestConfig.parse(args);
+        RunningServer server = null;
+        URI base;
+
+        if (config.url() == null) {
+            server = Main.start(0);
+            base = URI.create("http://localhost:" + server.port() + "/");
+        } else {
+            base = URI.create(config.url().endsWith("/") ? config.url() : config.url() + "/");
+        }
+
+        try (ExecutorService threads = Executors.newVirtualThreadPerTaskExecutor();
+             ExecutorService clientThreads = Executors.newVirtualThreadPerTaskExecutor()) {
+            HttpClient client = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .connectTimeout(Duration.ofSeconds(5))
+                    .executor(clientThreads)
+                    .build();
+
+            System.out.printf("Alvo: %s | modo %s | %s | %d itens por sessão | aquecimento %ds, medição %ds%n",
+                    base, config.mode(),
+                    config.isOpen() ? config.rate() + " sessões/s" : config.concurrency() + " usuários",
+                    config.items(), config.warmup().toSeconds(), config.duration().toSeconds());
+
+            LoadResults warmup = new LoadResults();
+            LoadResults measured = new LoadResults();
+            AtomicReference<LoadResults> current = new AtomicReference<>(warmup);
+            Session session = new Session(client, base, config.items(), current::get);
+
+            long warmupEnd = System.nanoTime() + config.warmup().toNanos();
+            long end = warmupEnd + config.duration().toNanos();
+
+            Runnable switchToMeasured = () -> current.set(measured);
+
+            long measuredStart;
+            if (config.isOpen()) {
+                measuredStart = runOpen(config, session, threads, warmupEnd, end, switchToMeasured, current);
+            } else {
+                measuredStart = runClosed(config, session, threads, warmupEnd, end, switchToMeasured);
+            }
+
+            double seconds = (System.nanoTime() - measuredStart) / 1e9;
+            System.out.println(measured.toText(config, seconds));
+
+            Path out = Path.of(config.out());
+            measured.writeJson(config, seconds, out);
+            System.out.println("Relatório JSON: " + out.toAbsolutePath());
+
+            threads.shutdownNow();
+            clientThreads.shutdownNow();
+        } finally {
+            if (server != null) {
+                server.stop();
+            }
+            Log.shutdown();
+        }
+    }
+
+    private static long runClosed(LoadTestConfig config, Session session, ExecutorService threads,
+                                  long warmupEnd, long end, Runnable switchToMeasured) throws InterruptedException {
+        for (int i = 0; i < config.concurrency(); i++) {
+            threads.execute(() -> {
+                while (System.nanoTime() < end) {
+                    session.run(System.nanoTime());
+                }
+            });
+        }
+
+        sleepUntil(warmupEnd);
+        switchToMeasured.run();
+        long measuredStart = System.nanoTime();
+
+        sleepUntil(end);
+        threads.shutdown();
+        threads.awaitTermination(60, TimeUnit.SECONDS);
+        return measuredStart;
+    }
+
+    private static long runOpen(LoadTestConfig config, Session session, ExecutorService threads,
+                                long warmupEnd, long end, Runnable switchToMeasured,
+                                AtomicReference<LoadResults> current) throws InterruptedException {
+        long period = TimeUnit.SECONDS.toNanos(1) / config.rate();
+        Semaphore open = new Semaphore(MAX_OPEN_SESSIONS);
+        long start = System.nanoTime();
+        long measuredStart = -1;
+
+        for (long k = 0; ; k++) {
+            long intended = start + k * period;
+
+            if (intended >= end) {
+                break;
+            }
+
+            if (measuredStart < 0 && intended >= warmupEnd) {
+                switchToMeasured.run();
+                measuredStart = intended;
+            }
+
+            sleepUntil(intended);
+
+            if (!open.tryAcquire()) {
+                current.get().sessionDropped();
+                continue;
+            }
+
+            threads.execute(() -> {
+                try {
+                    session.run(intended);
+                } finally {
+                    open.release();
+                }
+            });
+        }
+
+        if (measuredStart < 0) {
+            switchToMeasured.run();
+            measuredStart = System.nanoTime();
+        }
+
+        open.tryAcquire(MAX_OPEN_SESSIONS, 60, TimeUnit.SECONDS);
+        return measuredStart;
+    }
+
+    private static void sleepUntil(long deadlineNanos) {
+        long remaining;
+        while ((remaining = deadlineNanos - System.nanoTime()) > 0) {
+            LockSupport.parkNanos(remaining);
+        }
+    }
+}
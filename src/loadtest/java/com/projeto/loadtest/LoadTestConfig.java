@@ -0,0 +1,90 @@
+package com.projeto.loadtest;
+
+import java.time.Duration;
+
+/**
+ * Parâmetros da carga, lidos da linha de comando:
+ * <pre>
+ * --mode closed|open     laço fechado (N usuários em sequência) ou aberto (taxa fixa de sessões)
+ * --concurrency 32       modo closed: usuários simultâneos
+ * --rate 200             modo open: sessões iniciadas por segundo
+ * --items 3              itens adicionados por sessão
+ * --duration 30s         tempo medido
+ * --warmup 10s           aquecimento (não entra no relatório)
+ * --url http://host:port alvo externo; sem isso a API sobe no mesmo processo
+ * --out arquivo.json     relatório em JSON
+ * </pre>
+ */
+record LoadTestConfig(
+        String mode,
+        int concurrency,
+        int rate,
+        int items,
+        Duration duration,
+        Duration warmup,
+        String url,
+        String out
+) {
+
+    static LoadTestConfig parse(String[] args) {
+        String mode = "closed";
+        int concurrency = 32;
+        int rate = 200;
+        int items = 3;
+        Duration duration = Duration.ofSeconds(30);
+        Duration warmup = Duration.ofSeconds(10);
+        String url = null;
+        String out = "target/loadtest/report.json";
+
+        for (int i = 0; i < args.length; i++) {
+            String value = i + 1 < args.length ? args[i + 1] : null;
+
+            switch (args[i]) {
+                case "--mode" -> mode = value;
+                case "--concurrency" -> concurrency = Integer.parseInt(value);
+                case "--rate" -> rate = Integer.parseInt(value);
+                case "--items" -> items = Integer.parseInt(value);
+                case "--duration" -> duration = parseDuration(value);
+                case "--warmup" -> warmup = parseDuration(value);
+                case "--url" -> url = value;
+                case "--out" -> out = value;
+                default -> throw new IllegalArgumentException("Opção desconhecida: " + args[i]);
+            }
+            i++;
+        }
+
+        if (!"closed".equals(mode) && !"open".equals(mode)) {
+            throw new IllegalArgumentException("--mode deve ser closed ou open");
+        }
+
+        if (items < 1) {
+            throw new IllegalArgumentException("--items deve ser ao menos 1 (confirmar exige itens)");
+        }
+
+        if (concurrency < 1 || rate < 1) {
+            throw new IllegalArgumentException("--concurrency e --rate devem ser maiores que zero");
+        }
+
+        return new LoadTestConfig(mode, concurrency, rate, items, duration, warmup, url, out);
+    }
+
+    boolean isOpen() {
+        return "open".equals(mode);
+    }
+
+    /**
+     * Aceita "30s", "2m", "500ms" ou só segundos ("30").
+     */
+    private static Duration parseDuration(String value) {
+        if (value.endsWith("ms")) {
+            return Duration.ofMillis(Long.parseLong(value.substring(0, value.length() - 2)));
+        }
+        if (value.endsWith("s")) {
+            return Duration.ofSeconds(Long.parseLong(value.substring(0, value.length() - 1)));
+        }
+        if (value.endsWith("m")) {
+            return Duration.ofMinutes(Long.parseLong(value.substring(0, value.length() - 1)));
+        }
+        return Duration.ofSeconds(Long.parseLong(value));
+    }
+}
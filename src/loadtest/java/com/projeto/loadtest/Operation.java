@@ -0,0 +1,13 @@
+package com.projeto.loadtest;
+
+/**
+ * Passos de uma sessão, na ordem em que são executados.
+ */
+enum Operation {
+    CREATE,
+    ADD_ITEM,
+    GET,
+    LIST,
+    CONFIRM,
+    DELETE
+}
@@ -0,0 +1,97 @@
+package com.projeto.loadtest;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.function.Supplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Uma sessão de compra: cria o pedido, adiciona N itens, busca, lista,
+ * confirma e apaga. Cada passo depende da resposta do anterior.
+ */
+final class Session {
+
+    private static final Pattern ID = Pattern.compile("\"id\":\\s*(\\d+)");
+    private static final Duration TIMEOUT = Duration.ofSeconds(30);
+    private static final String[] PRODUCTS = {"Notebook", "Mouse", "Teclado", "Monitor", "Headset"};
+
+    private final HttpClient client;
+    private final URI base;
+    private final int items;
+    private final Supplier<LoadResults> results;
+
+    Session(HttpClient client, URI base, int items, Supplier<LoadResults> results) {
+        this.client = client;
+        this.base = base;
+        this.items = items;
+        this.results = results;
+    }
+
+    /**
+     * @param intendedStartNanos instante planejado para o primeiro envio; no
+     *                           modo open a latência do CREATE conta a partir dele
+     */
+    void run(long intendedStartNanos) {
+        String created = send(Operation.CREATE, post("/orders",
+                "{\"customerName\":\"Cliente " + Thread.currentThread().threadId() + "\"}"), intendedStartNanos);
+
+        Matcher matcher = created != null ? ID.matcher(created) : null;
+        if (matcher == null || !matcher.find()) {
+            return;
+        }
+
+        String orderId = matcher.group(1);
+
+        for (int i = 0; i < items; i++) {
+            String product = PRODUCTS[i % PRODUCTS.length];
+            send(Operation.ADD_ITEM, post("/orders/" + orderId + "/items",
+                    "{\"product\":\"" + product + "\",\"quantity\":" + (1 + i % 3) + ",\"unitPrice\":" + (10 + i) + ".90}"),
+                    System.nanoTime());
+        }
+
+        send(Operation.GET, request("/orders/" + orderId).GET().build(), System.nanoTime());
+        send(Operation.LIST, request("/orders?limit=20").GET().build(), System.nanoTime());
+        send(Operation.CONFIRM, request("/orders/" + orderId)
+                .PUT(HttpRequest.BodyPublishers.ofString("{\"status\":\"CONFIRMED\"}")).build(), System.nanoTime());
+        send(Operation.DELETE, request("/orders/" + orderId).DELETE().build(), System.nanoTime());
+
+        results.get().sessionCompleted();
+    }
+
+    /**
+     * @return o corpo da resposta 2xx, ou null em erro
+     */
+    private String send(Operation op, HttpRequest request, long sendAtNanos) {
+        String body = null;
+        boolean ok = false;
+
+        try {
+            HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+            ok = response.statusCode() / 100 == 2;
+            body = ok ? response.body() : null;
+        } catch (IOException e) {
+            // conta como erro
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        results.get().record(op, System.nanoTime() - sendAtNanos, ok);
+        return body;
+    }
+
+    private HttpRequest post(String path, String json) {
+        return request(path)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json))
+                .build();
+    }
+
+    private HttpRequest.Builder request(String path) {
+        return HttpRequest.newBuilder(base.resolve(path)).timeout(TIMEOUT);
+    }
+}
@@ -1,58 +1,101 @@
 package com.projeto;
 
+import com.projeto.config.AppConfig;
+import com.projeto.config.AppContext;
 import com.projeto.database.DatabaseConnection;
+import com.projeto.logging.Log;
 import com.projeto.routes.Routes;
+import com.projeto.server.RunningServer;
+import com.projeto.server.ServerExecutor;
+import com.projeto.server.ServerExecutors;
 import com.sun.net.httpserver.HttpServer;
 
+import java.lang.management.ManagementFactory;
 import java.net.InetSocketAddress;
 
 public class Main {
 
-    private static final int PORT = 8080;
+    private static final int PORT = AppConfig.getInt("server.port", 8080);
+    private static final int BACKLOG = AppConfig.getInt("server.backlog", 1024);
 
     public static void main(String[] args) {
         try {
             System.out.println("🚀 Iniciando API...");
 
-            DatabaseConnection.getConnection();
+            RunningServer running = start(PORT);
+            ServerExecutor executor = running.executor();
 
-            HttpServer server = HttpServer.create(
-                    new InetSocketAddress(PORT), 0
-            );
-
-            Routes.register(server);
-
-            server.start();
+            String base = "http://localhost:" + running.port();
 
             System.out.println("===========================================");
             System.out.println("✅ Servidor iniciado com sucesso!");
-            System.out.println("📡 Rodando em: http://localhost:" + PORT);
+            System.out.println("📡 Rodando em: " + base);
+            System.out.println("🧵 Execução: " + (executor != null ? executor.describe() : "thread única"));
+            System.out.println("⏱️ Pronto para atender em " + ManagementFactory.getRuntimeMXBean().getUptime()
+                    + " ms desde o início da JVM");
             System.out.println("===========================================");
             System.out.println("\n📚 ENDPOINTS DISPONÍVEIS:\n");
-            System.out.println("Health Check:");
-            System.out.println("  GET    http://localhost:8080/health");
+            System.out.println("Monitoramento:");
+            System.out.println("  GET    " + base + "/health");
+            System.out.println("  GET    " + base + "/metrics");
             System.out.println("\nPedidos (Orders):");
-            System.out.println("  GET    http://localhost:8080/orders");
-            System.out.println("  GET    http://localhost:8080/orders/{id}");
-            System.out.println("  POST   http://localhost:8080/orders");
-            System.out.println("  PUT    http://localhost:8080/orders/{id}");
-            System.out.println("  DELETE http://localhost:8080/orders/{id}");
+            System.out.println("  GET    " + base + "/orders");
+            System.out.println("  GET    " + base + "/orders/{id}");
+            System.out.println("  GET    " + base + "/orders/search?q=");
+            System.out.println("  GET    " + base + "/orders/stream");
+            System.out.println("  POST   " + base + "/orders");
+            System.out.println("  PUT    " + base + "/orders/{id}");
+            System.out.println("  DELETE " + base + "/orders/{id}");
             System.out.println("\nItens (OrderItems):");
-            System.out.println("  GET    http://localhost:8080/orders/{orderId}/items");
-            System.out.println("  POST   http://localhost:8080/orders/{orderId}/items");
-            System.out.println("  DELETE http://localhost:8080/items/{id}");
+            System.out.println("  GET    " + base + "/orders/{id}/items");
+            System.out.println("  POST   " + base + "/orders/{id}/items");
+            System.out.println("  POST   " + base + "/orders/{id}/items/bulk");
+            System.out.println("  DELETE " + base + "/items/{id}");
+            System.out.println("\nRelatórios (Reports):");
+            System.out.println("  GET    " + base + "/reports?from=&to=&top=");
+            System.out.println("  POST   " + base + "/reports/rebuild");
             System.out.println("\n===========================================");
             System.out.println("💡 Teste pelo navegador ou terminal (curl)");
             System.out.println("===========================================\n");
 
             Runtime.getRuntime().addShutdownHook(new Thread(() -> {
                 System.out.println("🛑 Encerrando servidor...");
-                server.stop(0);
-                DatabaseConnection.closeConnection();
+                running.stop();
+                Log.shutdown();
             }));
 
         } catch (Exception e) {
             e.printStackTrace();
         }
     }
+
+    /**
+     * Inicializa banco, executor, rotas e HttpServer. Também usado pelo teste
+     * de carga para subir a API no mesmo processo (port 0 = porta livre).
+     */
+    public static RunningServer start(int port) throws Exception {
+        // Sem TCP_NODELAY, cabeçalho e corpo saem em escritas separadas e o
+        // Nagle + ACK atrasado do cliente somam ~40 ms a cada resposta.
+        // Precisa ser definido antes do primeiro HttpServer.create.
+        if (System.getProperty("sun.net.httpserver.nodelay") == null) {
+            System.setProperty("sun.net.httpserver.nodelay",
+                    String.valueOf(AppConfig.getBoolean("server.tcpNoDelay", true)));
+        }
+
+        DatabaseConnection.initialize();
+
+        HttpServer server = HttpServer.create(
+                new InetSocketAddress(port), BACKLOG
+        );
+
+        ServerExecutor executor = ServerExecutors.fromConfig();
+        server.setExecutor(executor);
+
+        AppContext context = new AppContext();
+        context.rebuildViews();
+        Routes.register(server, executor, context);
+
+        server.start();
+        return new RunningServer(server, executor, context);
+    }
 }
@@ -0,0 +1,30 @@
+package com.projeto.cache;
+
+import java.util.Locale;
+
+public record CacheStats(
+        int maxSize,
+        int size,
+        long hits,
+        long misses,
+        long evictions,
+        long expirations,
+        long invalidations
+) {
+
+    public double hitRatio() {
+        long total = hits + misses;
+        return total == 0 ? 0 : (double) hits / total;
+    }
+
+    public String toJson() {
+        return "{\"maxSize\": " + maxSize +
+                ", \"size\": " + size +
+                ", \"hits\": " + hits +
+                ", \"misses\": " + misses +
+                ", \"hitRatio\": " + String.format(Locale.ROOT, "%.4f", hitRatio()) +
+                ", \"evictions\": " + evictions +
+                ", \"expirations\": " + expirations +
+                ", \"invalidations\": " + invalidations + "}";
+    }
+}
@@ -0,0 +1,169 @@
+package com.projeto.cache;
+
+import com.projeto.model.Order;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Cache em memória dos pedidos montados (pedido + itens), por id.
+ *
+ * Dividido em segmentos LRU independentes, cada um com seu lock, para que
+ * leituras concorrentes de ids diferentes não disputem o mesmo lock.
+ * Cada segmento tem uma "época" incrementada a cada invalidação: um valor
+ * carregado do banco só entra no cache se nenhuma invalidação aconteceu
+ * durante a carga, o que evita guardar um pedido já desatualizado.
+ *
+ * Os pedidos guardados são compartilhados entre requisições e não devem
+ * ser alterados por quem os recebe.
+ */
+public class OrderCache {
+
+    private static final int SEGMENTS = 16;
+
+    private final Segment[] segments = new Segment[SEGMENTS];
+    private final int maxSize;
+    private final long ttlNanos;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder expirations = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+
+    /**
+     * @param maxSize  máximo de pedidos guardados; 0 desliga o cache
+     * @param ttlMillis tempo de vida de cada entrada; 0 para sem expiração
+     */
+    public OrderCache(int maxSize, long ttlMillis) {
+        this.maxSize = Math.max(0, maxSize);
+        this.ttlNanos = ttlMillis > 0 ? ttlMillis * 1_000_000 : 0;
+
+        int perSegment = (this.maxSize + SEGMENTS - 1) / SEGMENTS;
+        for (int i = 0; i < SEGMENTS; i++) {
+            segments[i] = new Segment(perSegment);
+        }
+    }
+
+    public boolean isEnabled() {
+        return maxSize > 0;
+    }
+
+    /**
+     * @return o pedido em cache, ou {@code null} se não está (ou expirou)
+     */
+    public Order get(long id) {
+        if (!isEnabled()) {
+            return null;
+        }
+
+        Segment segment = segmentFor(id);
+        segment.lock.lock();
+
+        try {
+            Entry entry = segment.map.get(id);
+
+            if (entry == null) {
+                misses.increment();
+                return null;
+            }
+
+            if (ttlNanos > 0 && System.nanoTime() - entry.loadedAt > ttlNanos) {
+                segment.map.remove(id);
+                expirations.increment();
+                misses.increment();
+                return null;
+            }
+
+            hits.increment();
+            return entry.order;
+        } finally {
+            segment.lock.unlock();
+        }
+    }
+
+    /**
+     * Época atual do segmento do id; deve ser lida antes de ir ao banco
+     * e repassada para {@link #put(long, Order, long)}.
+     */
+    public long epoch(long id) {
+        return segmentFor(id).epoch;
+    }
+
+    public void put(long id, Order order, long epochAtLoad) {
+        if (!isEnabled()) {
+            return;
+        }
+
+        Segment segment = segmentFor(id);
+        segment.lock.lock();
+
+        try {
+            if (segment.epoch == epochAtLoad) {
+                segment.map.put(id, new Entry(order, System.nanoTime()));
+            }
+        } finally {
+            segment.lock.unlock();
+        }
+    }
+
+    public void invalidate(long id) {
+        Segment segment = segmentFor(id);
+        segment.lock.lock();
+
+        try {
+            segment.epoch++;
+            segment.map.remove(id);
+            invalidations.increment();
+        } finally {
+            segment.lock.unlock();
+        }
+    }
+
+    public CacheStats stats() {
+        int size = 0;
+
+        for (Segment segment : segments) {
+            segment.lock.lock();
+            try {
+                size += segment.map.size();
+            } finally {
+                segment.lock.unlock();
+            }
+        }
+
+        return new CacheStats(maxSize, size, hits.sum(), misses.sum(),
+                evictions.sum(), expirations.sum(), invalidations.sum());
+    }
+
+    private Segment segmentFor(long id) {
+        int hash = Long.hashCode(id);
+        hash ^= (hash >>> 16);
+        return segments[hash & (SEGMENTS - 1)];
+    }
+
+    private record Entry(Order order, long loadedAt) {
+    }
+
+    private final class Segment {
+
+        private final ReentrantLock lock = new ReentrantLock();
+        private final LinkedHashMap<Long, Entry> map;
+        private volatile long epoch;
+
+        private Segment(int capacity) {
+            this.map = new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Long, Entry> eldest) {
+                    if (size() > capacity) {
+                        evictions.increment();
+                        return true;
+                    }
+                    return false;
+                }
+            };
+        }
+    }
+}
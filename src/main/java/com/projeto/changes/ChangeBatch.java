@@ -0,0 +1,16 @@
+package com.projeto.changes;
+
+import java.util.List;
+
+/**
+ * Resultado de {@link ChangeLog#readAfter}.
+ *
+ * @param lost true quando parte das mudanças pedidas já saiu do buffer (ou a
+ *             sequência é de outra execução do servidor); o leitor precisa
+ *             recarregar o estado e continuar de {@link ChangeLog#lastSequence()}
+ */
+public record ChangeBatch(List<OrderChange> changes, boolean lost) {
+
+    static final ChangeBatch EMPTY = new ChangeBatch(List.of(), false);
+    static final ChangeBatch LOST = new ChangeBatch(List.of(), true);
+}
@@ -0,0 +1,11 @@
+package com.projeto.changes;
+
+/**
+ * Recebe cada mudança no momento em que é publicada, na ordem das
+ * sequências. Roda dentro do append, então deve ser rápido e não fazer I/O.
+ */
+@FunctionalInterface
+public interface ChangeListener {
+
+    void onChange(OrderChange change);
+}
@@ -0,0 +1,251 @@
+package com.projeto.changes;
+
+import com.projeto.logging.Log;
+import com.projeto.logging.Logger;
+import com.projeto.model.Order;
+import com.projeto.model.OrderItem;
+
+import java.io.IOException;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * Registro em memória das escritas de pedidos, numa fila circular de
+ * tamanho fixo com números de sequência crescentes (a partir de 1).
+ *
+ * Quem escreve só disputa um lock curto com outros escritores e acorda os
+ * leitores parados com {@link LockSupport#unpark}; nunca espera por eles.
+ * Cada leitor guarda a própria posição: se ficar para trás mais que a
+ * capacidade, as mudanças antigas são sobrescritas e ele recebe
+ * {@link ChangeBatch#lost()} em vez de segurar o buffer.
+ *
+ * Visões derivadas em memória (busca, relatórios) se inscrevem como
+ * {@link ChangeListener} e são atualizadas no próprio append, em ordem.
+ */
+public class ChangeLog {
+
+    private static final Logger LOG = Log.getLogger(ChangeLog.class);
+
+    private static final int REBUILD_ATTEMPTS = 3;
+
+    /**
+     * Lê do banco o estado completo de uma visão em memória.
+     */
+    @FunctionalInterface
+    public interface ViewLoader<V extends ChangeListener> {
+
+        V load() throws SQLException, IOException;
+    }
+
+    private final int mask;
+    private final AtomicReferenceArray<OrderChange> slots;
+    private final ReentrantLock appendLock = new ReentrantLock();
+    private final Set<Thread> waiters = ConcurrentHashMap.newKeySet();
+    private final List<ChangeListener> listeners = new CopyOnWriteArrayList<>();
+
+    private volatile long last;
+    private volatile boolean closed;
+
+    public ChangeLog(int capacity) {
+        if (capacity < 2 || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("Capacidade do registro de mudanças deve ser potência de 2: " + capacity);
+        }
+
+        this.mask = capacity - 1;
+        this.slots = new AtomicReferenceArray<>(capacity);
+    }
+
+    public OrderChange append(ChangeType type, long orderId, long version, Order order, List<OrderItem> items) {
+        OrderChange change;
+        appendLock.lock();
+
+        try {
+            long sequence = last + 1;
+            change = new OrderChange(sequence, type, orderId, version, LocalDateTime.now(), order, items);
+            slots.set((int) sequence & mask, change);
+            last = sequence;
+            notifyListeners(change);
+        } finally {
+            appendLock.unlock();
+        }
+
+        for (Thread waiter : waiters) {
+            LockSupport.unpark(waiter);
+        }
+
+        return change;
+    }
+
+    public void addListener(ChangeListener listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Entrega a {@code target} as mudanças publicadas depois de {@code after}
+     * e executa {@code onCaughtUp} sem que nenhuma escrita nova aconteça no
+     * meio. Serve para trocar uma visão reconstruída a partir do banco pela
+     * atual sem perder o que foi escrito durante a reconstrução; por isso o
+     * {@code target} precisa tolerar mudanças que a leitura do banco já viu.
+     *
+     * @return false se parte das mudanças já saiu do buffer (nada é executado)
+     */
+    public boolean catchUp(long after, ChangeListener target, Runnable onCaughtUp) {
+        appendLock.lock();
+
+        try {
+            List<OrderChange> pending = new ArrayList<>();
+            long position = after;
+
+            while (position < last) {
+                ChangeBatch batch = readAfter(position, slots.length());
+
+                if (batch.lost()) {
+                    return false;
+                }
+
+                pending.addAll(batch.changes());
+                position = batch.changes().get(batch.changes().size() - 1).sequence();
+            }
+
+            for (OrderChange change : pending) {
+                target.onChange(change);
+            }
+
+            onCaughtUp.run();
+            return true;
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    /**
+     * Carrega uma visão nova com {@code loader} e a entrega a {@code install}
+     * já com as mudanças publicadas durante a leitura (ver {@link #catchUp}).
+     * Se o buffer não tiver mais todas, a leitura é refeita.
+     */
+    public <V extends ChangeListener> V rebuild(ViewLoader<V> loader, Consumer<V> install)
+            throws SQLException, IOException {
+        for (int attempt = 1; attempt <= REBUILD_ATTEMPTS; attempt++) {
+            long from = last;
+            V view = loader.load();
+
+            if (catchUp(from, view, () -> install.accept(view))) {
+                return view;
+            }
+        }
+
+        throw new IllegalStateException("Escritas demais durante a reconstrução; aumente changes.capacity");
+    }
+
+    /**
+     * Mudanças com sequência maior que {@code after}, no máximo {@code max}.
+     */
+    public ChangeBatch readAfter(long after, int max) {
+        long end = last;
+
+        if (after > end) {
+            return ChangeBatch.LOST;
+        }
+
+        if (after == end) {
+            return ChangeBatch.EMPTY;
+        }
+
+        if (end - after > slots.length()) {
+            return ChangeBatch.LOST;
+        }
+
+        int count = (int) Math.min(max, end - after);
+        List<OrderChange> changes = new ArrayList<>(count);
+
+        for (long sequence = after + 1; sequence <= after + count; sequence++) {
+            OrderChange change = slots.get((int) sequence & mask);
+
+            // sobrescrita por um escritor enquanto líamos
+            if (change == null || change.sequence() != sequence) {
+                return ChangeBatch.LOST;
+            }
+
+            changes.add(change);
+        }
+
+        return new ChangeBatch(changes, false);
+    }
+
+    /**
+     * Espera até existir mudança depois de {@code after}, o tempo acabar ou o
+     * registro ser fechado.
+     *
+     * @return a última sequência publicada
+     */
+    public long awaitAfter(long after, long timeoutMillis) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        Thread current = Thread.currentThread();
+        waiters.add(current);
+
+        try {
+            while (last <= after && !closed) {
+                long remaining = deadline - System.nanoTime();
+
+                if (remaining <= 0) {
+                    break;
+                }
+
+                LockSupport.parkNanos(this, remaining);
+
+                if (Thread.interrupted()) {
+                    throw new InterruptedException();
+                }
+            }
+        } finally {
+            waiters.remove(current);
+        }
+
+        return last;
+    }
+
+    public long lastSequence() {
+        return last;
+    }
+
+    public int capacity() {
+        return slots.length();
+    }
+
+    public boolean isClosed() {
+        return closed;
+    }
+
+    /**
+     * Acorda os leitores parados para que encerrem (desligamento do servidor).
+     */
+    public void close() {
+        closed = true;
+
+        for (Thread waiter : waiters) {
+            LockSupport.unpark(waiter);
+        }
+    }
+
+    private void notifyListeners(OrderChange change) {
+        for (ChangeListener listener : listeners) {
+            try {
+                listener.onChange(change);
+            } catch (RuntimeException e) {
+                // a escrita já foi confirmada no banco; a visão fica defasada até ser reconstruída
+                LOG.error("Falha ao aplicar mudança", e, "listener", listener.getClass().getSimpleName(),
+                        "sequence", change.sequence());
+            }
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.projeto.changes;
+
+/**
+ * Tipos de alteração publicados no {@link ChangeLog}; o nome do evento SSE
+ * é {@link #eventName()}.
+ */
+public enum ChangeType {
+
+    ORDER_CREATED("order.created"),
+    ITEMS_ADDED("items.added"),
+    ITEM_DELETED("item.deleted"),
+    STATUS_CHANGED("status.changed"),
+    ORDER_DELETED("order.deleted");
+
+    private final String eventName;
+
+    ChangeType(String eventName) {
+        this.eventName = eventName;
+    }
+
+    public String eventName() {
+        return eventName;
+    }
+}
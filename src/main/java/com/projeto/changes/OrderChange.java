@@ -0,0 +1,32 @@
+package com.projeto.changes;
+
+import com.projeto.model.Order;
+import com.projeto.model.OrderItem;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Uma escrita já confirmada no banco.
+ *
+ * As mudanças são publicadas depois do commit, então duas escritas
+ * concorrentes no mesmo pedido podem chegar fora da ordem em que foram
+ * confirmadas: quem guarda o estado do pedido compara {@code version} e
+ * descarta a mudança que não for mais nova que a última aplicada.
+ *
+ * @param version versão do pedido depois da escrita (em
+ *                {@link ChangeType#ORDER_DELETED}, a última que ele teve)
+ * @param order estado do pedido depois da escrita (sem itens nos eventos de
+ *              item; nulo em {@link ChangeType#ORDER_DELETED})
+ * @param items itens incluídos ou removidos, nos eventos de item
+ */
+public record OrderChange(
+        long sequence,
+        ChangeType type,
+        long orderId,
+        long version,
+        LocalDateTime at,
+        Order order,
+        List<OrderItem> items
+) {
+}
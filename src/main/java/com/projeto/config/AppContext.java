@@ -0,0 +1,176 @@
+package com.projeto.config;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.projeto.cache.OrderCache;
+import com.projeto.changes.ChangeLog;
+import com.projeto.controller.ChangeStreamController;
+import com.projeto.controller.OrderController;
+import com.projeto.controller.OrderItemController;
+import com.projeto.controller.ReportController;
+import com.projeto.controller.SearchController;
+import com.projeto.database.DatabaseConnection;
+import com.projeto.database.DatabaseExecutor;
+import com.projeto.idempotency.IdempotencyStore;
+import com.projeto.reports.SalesRollup;
+import com.projeto.repository.IdempotencyRepository;
+import com.projeto.repository.OrderItemRepository;
+import com.projeto.repository.OrderRepository;
+import com.projeto.search.SearchIndex;
+import com.projeto.service.AsyncOrderService;
+import com.projeto.service.AsyncOrderServiceImpl;
+import com.projeto.service.OrderService;
+import com.projeto.service.OrderServiceImpl;
+
+import java.io.IOException;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Monta os objetos da aplicação uma única vez na inicialização.
+ * Repositórios, serviço, Gson e controllers são compartilhados por todas as
+ * requisições (todos são sem estado, então é seguro usá-los em paralelo).
+ * O executor de banco tem threads próprias e, como os streams de mudanças,
+ * é encerrado em {@link #close}.
+ */
+public class AppContext {
+
+    private final Gson gson;
+    private final OrderRepository orderRepository;
+    private final OrderItemRepository orderItemRepository;
+    private final OrderCache orderCache;
+    private final IdempotencyStore idempotencyStore;
+    private final ChangeLog changeLog;
+    private final SearchIndex searchIndex;
+    private final SalesRollup salesRollup;
+    private final OrderService orderService;
+    private final DatabaseExecutor databaseExecutor;
+    private final AsyncOrderService asyncOrderService;
+    private final OrderController orderController;
+    private final OrderItemController orderItemController;
+    private final ChangeStreamController changeStreamController;
+    private final SearchController searchController;
+    private final ReportController reportController;
+
+    public AppContext() {
+        this.gson = createGson(AppConfig.getBoolean("json.pretty", false));
+        this.orderRepository = new OrderRepository();
+        this.orderItemRepository = new OrderItemRepository();
+        this.orderCache = new OrderCache(
+                AppConfig.getInt("cache.orders.maxSize", 10_000),
+                AppConfig.getLong("cache.orders.ttlMs", 0));
+        this.idempotencyStore = new IdempotencyStore(
+                AppConfig.getInt("idempotency.maxKeys", 10_000),
+                AppConfig.getLong("idempotency.ttlMs", 24 * 60 * 60_000L),
+                AppConfig.getLong("idempotency.inProgressTimeoutMs", 60_000),
+                AppConfig.getBoolean("idempotency.persist", false) ? new IdempotencyRepository() : null);
+        this.changeLog = new ChangeLog(AppConfig.getInt("changes.capacity", 4096));
+        this.searchIndex = new SearchIndex();
+        this.changeLog.addListener(searchIndex);
+        this.salesRollup = new SalesRollup();
+        this.changeLog.addListener(salesRollup);
+        this.orderService = new OrderServiceImpl(orderRepository, orderItemRepository, orderCache, changeLog);
+        this.databaseExecutor = new DatabaseExecutor(
+                DatabaseConnection.maxPoolSize(),
+                AppConfig.getInt("db.executor.queueDepth", 1000));
+        this.asyncOrderService = new AsyncOrderServiceImpl(
+                orderService, orderRepository, orderItemRepository, orderCache, databaseExecutor);
+        this.orderController = new OrderController(orderService, asyncOrderService, gson);
+        this.orderItemController = new OrderItemController(asyncOrderService, gson);
+        this.changeStreamController = new ChangeStreamController(changeLog, gson);
+        this.searchController = new SearchController(searchIndex, gson);
+        this.reportController = new ReportController(
+                salesRollup, orderRepository, orderItemRepository, changeLog, gson);
+    }
+
+    /**
+     * Carrega do banco as visões mantidas em memória (índice de busca e relatórios). Depois
+     * disso elas acompanham as escritas pelo {@link ChangeLog}.
+     */
+    public void rebuildViews() throws SQLException, IOException {
+        searchIndex.rebuild(orderRepository, orderItemRepository, changeLog);
+        salesRollup.rebuild(orderRepository, orderItemRepository, changeLog);
+    }
+
+    public static Gson createGson(boolean pretty) {
+        GsonBuilder builder = new GsonBuilder()
+                .registerTypeAdapter(LocalDateTime.class, new LocalDateTimeAdapter())
+                .registerTypeAdapter(LocalDate.class, new LocalDateAdapter());
+
+        if (pretty) {
+            builder.setPrettyPrinting();
+        }
+
+        return builder.create();
+    }
+
+    public Gson getGson() {
+        return gson;
+    }
+
+    public OrderRepository getOrderRepository() {
+        return orderRepository;
+    }
+
+    public OrderItemRepository getOrderItemRepository() {
+        return orderItemRepository;
+    }
+
+    public OrderCache getOrderCache() {
+        return orderCache;
+    }
+
+    public IdempotencyStore getIdempotencyStore() {
+        return idempotencyStore;
+    }
+
+    public ChangeLog getChangeLog() {
+        return changeLog;
+    }
+
+    public SearchIndex getSearchIndex() {
+        return searchIndex;
+    }
+
+    public SalesRollup getSalesRollup() {
+        return salesRollup;
+    }
+
+    public OrderService getOrderService() {
+        return orderService;
+    }
+
+    public DatabaseExecutor getDatabaseExecutor() {
+        return databaseExecutor;
+    }
+
+    public AsyncOrderService getAsyncOrderService() {
+        return asyncOrderService;
+    }
+
+    public OrderController getOrderController() {
+        return orderController;
+    }
+
+    public OrderItemController getOrderItemController() {
+        return orderItemController;
+    }
+
+    public ChangeStreamController getChangeStreamController() {
+        return changeStreamController;
+    }
+
+    public SearchController getSearchController() {
+        return searchController;
+    }
+
+    public ReportController getReportController() {
+        return reportController;
+    }
+
+    public void close() {
+        changeLog.close();
+        databaseExecutor.shutdown();
+    }
+}
@@ -0,0 +1,30 @@
+package com.projeto.config;
+
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+import com.projeto.model.Money;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+
+/**
+ * Campos em centavos aparecem no JSON como número decimal (1990 → 19.90).
+ */
+public class MoneyAdapter extends TypeAdapter<Long> {
+
+    @Override
+    public void write(JsonWriter out, Long cents) throws IOException {
+        if (cents == null) {
+            out.nullValue();
+            return;
+        }
+        // BigDecimal e não jsonValue: também funciona no toJsonTree (projeção com fields)
+        out.value(new BigDecimal(Money.format(cents)));
+    }
+
+    @Override
+    public Long read(JsonReader in) throws IOException {
+        return Money.parse(in.nextString());
+    }
+}
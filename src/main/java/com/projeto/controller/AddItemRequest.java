@@ -0,0 +1,58 @@
+package com.projeto.controller;
+
+import com.google.gson.stream.JsonReader;
+import com.projeto.model.Money;
+import com.projeto.model.OrderItem;
+
+import java.io.IOException;
+
+/**
+ * Um item no POST /orders/{id}/items e em cada elemento do /items/bulk.
+ * O preço é lido como texto e convertido por {@link Money#parse}, sem
+ * passar por double.
+ */
+public record AddItemRequest(String product, int quantity, long unitPriceCents) {
+
+    private static final int MAX_PRODUCT_LENGTH = 255;
+
+    public static AddItemRequest read(JsonReader reader) throws IOException {
+        String product = null;
+        Integer quantity = null;
+        String unitPrice = null;
+
+        reader.beginObject();
+        while (reader.hasNext()) {
+            switch (reader.nextName()) {
+                case "product" -> product = reader.nextString();
+                case "quantity" -> quantity = reader.nextInt();
+                case "unitPrice" -> unitPrice = reader.nextString();
+                default -> reader.skipValue();
+            }
+        }
+        reader.endObject();
+
+        if (product == null || quantity == null || unitPrice == null) {
+            throw new IllegalArgumentException("Campos obrigatórios: product, quantity, unitPrice");
+        }
+
+        if (product.isBlank() || product.length() > MAX_PRODUCT_LENGTH) {
+            throw new IllegalArgumentException("Campo 'product' deve ter de 1 a " + MAX_PRODUCT_LENGTH + " caracteres");
+        }
+
+        if (quantity <= 0) {
+            throw new IllegalArgumentException("Campo 'quantity' deve ser maior que zero");
+        }
+
+        long unitPriceCents = Money.parse(unitPrice);
+
+        if (unitPriceCents < 0) {
+            throw new IllegalArgumentException("Campo 'unitPrice' não pode ser negativo");
+        }
+
+        return new AddItemRequest(product, quantity, unitPriceCents);
+    }
+
+    public OrderItem toItem(long orderId) {
+        return new OrderItem(orderId, product, quantity, unitPriceCents);
+    }
+}
@@ -0,0 +1,142 @@
+package com.projeto.controller;
+
+import com.google.gson.Gson;
+import com.projeto.changes.ChangeBatch;
+import com.projeto.changes.ChangeLog;
+import com.projeto.changes.OrderChange;
+import com.projeto.config.AppConfig;
+import com.projeto.http.HttpException;
+import com.projeto.http.QueryParams;
+import com.projeto.logging.Log;
+import com.projeto.logging.Logger;
+import com.projeto.routes.PathParams;
+import com.sun.net.httpserver.HttpExchange;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * GET /orders/stream: as mudanças do {@link ChangeLog} como Server-Sent Events.
+ *
+ * Cada evento leva a sequência no {@code id:}; ao reconectar, o navegador
+ * manda {@code Last-Event-ID} e a transmissão continua dali (ou de
+ * {@code ?lastEventId=}). Sem nenhum dos dois, começa pelas próximas
+ * mudanças. Se a posição pedida já saiu do buffer, o cliente recebe um
+ * evento {@code reset} e deve recarregar a lista antes de seguir.
+ *
+ * Cada conexão ocupa a thread da requisição enquanto estiver aberta; um
+ * cliente lento só atrasa a própria conexão.
+ */
+public class ChangeStreamController {
+
+    private static final Logger LOG = Log.getLogger(ChangeStreamController.class);
+
+    private static final int MAX_CLIENTS = AppConfig.getInt("changes.stream.maxClients", 100);
+    private static final long HEARTBEAT_MS = AppConfig.getLong("changes.stream.heartbeatMs", 15_000);
+    private static final int BATCH_SIZE = 256;
+
+    private final ChangeLog changes;
+    private final Gson gson;
+    private final AtomicInteger clients = new AtomicInteger();
+
+    public ChangeStreamController(ChangeLog changes, Gson gson) {
+        this.changes = changes;
+        this.gson = gson;
+    }
+
+    public int clients() {
+        return clients.get();
+    }
+
+    public void handleStream(HttpExchange exchange, PathParams params) throws IOException {
+        long after = startPosition(exchange);
+
+        if (clients.incrementAndGet() > MAX_CLIENTS) {
+            clients.decrementAndGet();
+            exchange.getResponseHeaders().set("Retry-After", "5");
+            throw new HttpException(503, "Limite de conexões em /orders/stream atingido");
+        }
+
+        try {
+            exchange.getResponseHeaders().set("Content-Type", "text/event-stream; charset=UTF-8");
+            exchange.getResponseHeaders().set("Cache-Control", "no-cache");
+            exchange.getResponseHeaders().set("X-Accel-Buffering", "no");
+            exchange.sendResponseHeaders(200, 0);
+
+            try (Writer writer = new BufferedWriter(
+                    new OutputStreamWriter(exchange.getResponseBody(), StandardCharsets.UTF_8), 16 * 1024)) {
+                writer.write("retry: 3000\n\n");
+                writer.flush();
+                stream(writer, after);
+            }
+        } catch (IOException e) {
+            // cliente desconectou
+            LOG.debug("Stream de mudanças encerrado", "error", e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            clients.decrementAndGet();
+        }
+    }
+
+    private long startPosition(HttpExchange exchange) {
+        String lastEventId = exchange.getRequestHeaders().getFirst("Last-Event-ID");
+
+        if (lastEventId == null) {
+            lastEventId = new QueryParams(exchange.getRequestURI()).get("lastEventId");
+        }
+
+        if (lastEventId == null || lastEventId.isBlank()) {
+            return changes.lastSequence();
+        }
+
+        try {
+            long position = Long.parseLong(lastEventId.trim());
+
+            if (position < 0) {
+                throw new NumberFormatException();
+            }
+
+            return position;
+        } catch (NumberFormatException e) {
+            throw new HttpException(400, "Last-Event-ID inválido: " + lastEventId);
+        }
+    }
+
+    private void stream(Writer writer, long after) throws IOException, InterruptedException {
+        long position = after;
+
+        while (!changes.isClosed()) {
+            ChangeBatch batch = changes.readAfter(position, BATCH_SIZE);
+
+            if (batch.lost()) {
+                position = changes.lastSequence();
+                writer.write("id: " + position + "\nevent: reset\ndata: {\"sequence\": " + position + "}\n\n");
+                writer.flush();
+                continue;
+            }
+
+            if (!batch.changes().isEmpty()) {
+                for (OrderChange change : batch.changes()) {
+                    // com json.pretty o JSON tem quebras de linha: cada linha vira um "data:"
+                    writer.write("id: " + change.sequence() + "\nevent: " + change.type().eventName() +
+                            "\ndata: " + gson.toJson(change).replace("\n", "\ndata: ") + "\n\n");
+                    position = change.sequence();
+                }
+
+                writer.flush();
+                continue;
+            }
+
+            if (changes.awaitAfter(position, HEARTBEAT_MS) == position && !changes.isClosed()) {
+                // comentário SSE: mantém proxies e o cliente sabendo que a conexão vive
+                writer.write(": keep-alive\n\n");
+                writer.flush();
+            }
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.projeto.controller;
+
+import com.google.gson.stream.JsonReader;
+
+import java.io.IOException;
+
+/**
+ * Corpo do POST /orders: {@code {"customerName": "..."}}.
+ */
+public record CreateOrderRequest(String customerName) {
+
+    private static final int MAX_NAME_LENGTH = 100;
+
+    public static CreateOrderRequest read(JsonReader reader) throws IOException {
+        String customerName = null;
+
+        reader.beginObject();
+        while (reader.hasNext()) {
+            if (reader.nextName().equals("customerName")) {
+                customerName = reader.nextString();
+            } else {
+                reader.skipValue();
+            }
+        }
+        reader.endObject();
+
+        if (customerName == null) {
+            throw new IllegalArgumentException("Campo obrigatório 'customerName' não enviado");
+        }
+
+        if (customerName.isBlank()) {
+            throw new IllegalArgumentException("Campo 'customerName' não pode ser vazio");
+        }
+
+        if (customerName.length() > MAX_NAME_LENGTH) {
+            throw new IllegalArgumentException("Campo 'customerName' deve ter no máximo " + MAX_NAME_LENGTH + " caracteres");
+        }
+
+        return new CreateOrderRequest(customerName);
+    }
+}
@@ -1,194 +1,253 @@
 package com.projeto.controller;
 
 import com.google.gson.*;
+import com.google.gson.stream.JsonWriter;
+import com.projeto.http.AsyncResponses;
+import com.projeto.http.ETags;
+import com.projeto.http.HttpException;
+import com.projeto.http.HttpResponses;
+import com.projeto.http.QueryParams;
+import com.projeto.http.RequestBodies;
+import com.projeto.http.ResponseCompression;
+import com.projeto.logging.Log;
+import com.projeto.logging.Logger;
 import com.projeto.model.Order;
+import com.projeto.model.OrderStatus;
+import com.projeto.repository.OrderCursor;
+import com.projeto.repository.OrderQuery;
+import com.projeto.routes.PathParams;
+import com.projeto.service.AsyncOrderService;
 import com.projeto.service.OrderService;
-import com.projeto.service.OrderServiceImpl;
 import com.sun.net.httpserver.HttpExchange;
-import com.sun.net.httpserver.HttpHandler;
 
+import java.io.BufferedWriter;
 import java.io.IOException;
-import java.io.OutputStream;
-import java.lang.reflect.Type;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
 import java.nio.charset.StandardCharsets;
 import java.sql.SQLException;
-import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
+import java.util.LinkedHashSet;
 import java.util.List;
-import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
+public class OrderController {
 
-public class OrderController implements HttpHandler {
+    private static final Logger LOG = Log.getLogger(OrderController.class);
+    
+    private static final String NDJSON = "application/x-ndjson";
     
     private final OrderService orderService;
+    private final AsyncOrderService asyncOrderService;
     private final Gson gson;
     
-    public OrderController() {
-        this.orderService = new OrderServiceImpl();
-        
-        this.gson = new GsonBuilder()
-                .setPrettyPrinting()
-                .registerTypeAdapter(LocalDateTime.class, new LocalDateTimeAdapter())
-                .create();
+    public OrderController(OrderService orderService, AsyncOrderService asyncOrderService, Gson gson) {
+        this.orderService = orderService;
+        this.asyncOrderService = asyncOrderService;
+        this.gson = gson;
     }
     
-    @Override
-    public void handle(HttpExchange exchange) throws IOException {
-        exchange.getResponseHeaders().add("Access-Control-Allow-Origin", "*");
-        exchange.getResponseHeaders().add("Access-Control-Allow-Methods", "GET, POST, PUT, DELETE, OPTIONS");
-        exchange.getResponseHeaders().add("Access-Control-Allow-Headers", "Content-Type");
+    /**
+     * Com If-None-Match, compara só a versão do pedido: se o cliente já tem a
+     * versão atual, responde 304 sem carregar itens nem serializar.
+     */
+    public CompletableFuture<Void> handleGetById(HttpExchange exchange, PathParams params) {
+        long id = params.getLong("id");
         
-        String method = exchange.getRequestMethod();
-        String path = exchange.getRequestURI().getPath();
+        if (!ETags.isConditional(exchange)) {
+            return sendOrder(exchange, id);
+        }
         
-        try {
-            if ("OPTIONS".equals(method)) {
-                exchange.sendResponseHeaders(200, -1);
-                return;
+        return asyncOrderService.findOrderVersion(id).thenCompose(version -> {
+            if (version.isPresent()) {
+                String etag = ETags.of(id, version.getAsLong());
+                
+                if (ETags.matches(exchange, etag)) {
+                    return AsyncResponses.run(() -> ETags.sendNotModified(exchange, etag));
+                }
             }
             
-            switch (method) {
-                case "GET":
-                    handleGet(exchange, path);
-                    break;
-                case "POST":
-                    handlePost(exchange);
-                    break;
-                case "PUT":
-                    handlePut(exchange, path);
-                    break;
-                case "DELETE":
-                    handleDelete(exchange, path);
-                    break;
-                default:
-                    sendResponse(exchange, 405, "{\"error\": \"Method not allowed\"}");
+            return sendOrder(exchange, id);
+        });
+    }
+    
+    private CompletableFuture<Void> sendOrder(HttpExchange exchange, long id) {
+        return asyncOrderService.findOrderById(id).thenAccept(AsyncResponses.sending(order -> {
+            if (order.isPresent()) {
+                ETags.tag(exchange, ETags.of(id, order.get().getVersion()));
+                String json = gson.toJson(order.get());
+                HttpResponses.sendJson(exchange, 200, json);
+            } else {
+                HttpResponses.sendJson(exchange, 404, "{\"error\": \"Pedido não encontrado\"}");
             }
-        } catch (Exception e) {
-            e.printStackTrace();
-            sendResponse(exchange, 500, "{\"error\": \"" + e.getMessage() + "\"}");
+        }));
+    }
+    
+    /**
+     * GET /orders?limit=&cursor=&status=&customer=&createdFrom=&createdTo=&items=&fields=
+     * O corpo continua sendo um array; o cursor da próxima página vai no header X-Next-Cursor.
+     * O modo stream segura a thread HTTP até o fim do ResultSet, por isso
+     * segue síncrono.
+     */
+    public CompletableFuture<Void> handleList(HttpExchange exchange, PathParams pathParams) throws SQLException, IOException {
+        OrderQuery query;
+        Set<String> fields;
+        boolean ndjson;
+        boolean stream;
+        
+        try {
+            QueryParams params = new QueryParams(exchange.getRequestURI());
+            String accept = exchange.getRequestHeaders().getFirst("Accept");
+            ndjson = "ndjson".equals(params.get("format"))
+                    || (accept != null && accept.contains(NDJSON));
+            stream = ndjson || params.getBoolean("stream", false);
+            fields = parseFields(params.get("fields"));
+            
+            boolean includeItems = params.getBoolean("items", true)
+                    && (fields == null || fields.contains("items"));
+            String cursor = params.get("cursor");
+            
+            query = new OrderQuery(
+                    params.getInt("limit", OrderQuery.DEFAULT_LIMIT),
+                    cursor != null ? OrderCursor.decode(cursor) : null,
+                    params.has("status") ? OrderStatus.parse(params.get("status")) : null,
+                    params.get("customer"),
+                    params.getDateTime("createdFrom"),
+                    params.getDateTime("createdTo"),
+                    includeItems
+            );
+        } catch (IllegalArgumentException e) {
+            HttpResponses.sendError(exchange, 400, e.getMessage());
+            return AsyncResponses.done();
+        }
+        
+        if (stream) {
+            streamList(exchange, query, fields, ndjson);
+            return AsyncResponses.done();
         }
+        
+        return asyncOrderService.listOrders(query).thenAccept(AsyncResponses.sending(page -> {
+            if (page.nextCursor() != null) {
+                exchange.getResponseHeaders().set("X-Next-Cursor", page.nextCursor().encode());
+            }
+            
+            HttpResponses.sendJson(exchange, 200, toJson(page.orders(), fields));
+        }));
     }
     
-    private void handleGet(HttpExchange exchange, String path) throws SQLException, IOException {
-        String[] parts = path.split("/");
+    /**
+     * Escreve os pedidos direto no corpo da resposta (chunked) conforme saem do
+     * ResultSet, como array JSON ou NDJSON (um pedido por linha). O limit é ignorado.
+     * Com Accept-Encoding, o stream sai comprimido independentemente do tamanho.
+     */
+    private void streamList(HttpExchange exchange, OrderQuery query, Set<String> fields, boolean ndjson) throws SQLException, IOException {
+        exchange.getResponseHeaders().set("Content-Type",
+                ndjson ? NDJSON + "; charset=UTF-8" : HttpResponses.JSON);
         
-        if (parts.length == 2) {
-            List<Order> orders = orderService.listOrders();
-            String json = gson.toJson(orders);
-            sendResponse(exchange, 200, json);
+        try (Writer writer = new BufferedWriter(new OutputStreamWriter(
+                ResponseCompression.startStream(exchange, 200), StandardCharsets.UTF_8), 16 * 1024)) {
             
-        } else if (parts.length == 3) {
-            try {
-                Long id = Long.parseLong(parts[2]);
-                Optional<Order> order = orderService.findOrderById(id);
-                
-                if (order.isPresent()) {
-                    String json = gson.toJson(order.get());
-                    sendResponse(exchange, 200, json);
+            JsonWriter jsonWriter = new JsonWriter(writer);
+            jsonWriter.setLenient(true);
+            
+            if (!ndjson) {
+                jsonWriter.beginArray();
+            }
+            
+            orderService.streamOrders(query, order -> {
+                if (fields == null) {
+                    gson.toJson(order, Order.class, jsonWriter);
                 } else {
-                    sendResponse(exchange, 404, "{\"error\": \"Pedido não encontrado\"}");
+                    gson.toJson(project(order, fields), jsonWriter);
                 }
-            } catch (NumberFormatException e) {
-                sendResponse(exchange, 400, "{\"error\": \"ID inválido\"}");
+                
+                if (ndjson) {
+                    jsonWriter.flush();
+                    writer.write('\n');
+                }
+            });
+            
+            if (!ndjson) {
+                jsonWriter.endArray();
             }
+            
+            jsonWriter.flush();
         }
     }
     
-private void handlePost(HttpExchange exchange) throws IOException, SQLException {
-
-    String body = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
-    System.out.println("📥 JSON RECEBIDO: " + body);
-
-    if (body == null || body.isBlank()) {
-        sendResponse(exchange, 400, "{\"error\": \"Body JSON está vazio\"}");
-        return;
-    }
-
-    JsonObject jsonObject;
-
-    try {
-        jsonObject = JsonParser.parseString(body).getAsJsonObject();
-    } catch (Exception e) {
-        sendResponse(exchange, 400, "{\"error\": \"Formato JSON inválido\"}");
-        return;
-    }
-
-    if (!jsonObject.has("customerName")) {
-        sendResponse(exchange, 400, "{\"error\": \"Campo obrigatório 'customerName' não enviado\"}");
-        return;
+    private Set<String> parseFields(String fields) {
+        if (fields == null) {
+            return null;
+        }
+        
+        Set<String> result = new LinkedHashSet<>();
+        for (String field : fields.split(",")) {
+            if (!field.isBlank()) {
+                result.add(field.trim());
+            }
+        }
+        return result;
     }
-
-    String customerName = jsonObject.get("customerName").getAsString();
-
-    Order savedOrder = orderService.createOrder(customerName);
-    String json = gson.toJson(savedOrder);
-
-    sendResponse(exchange, 201, json);
-}
     
-    private void handlePut(HttpExchange exchange, String path) throws SQLException, IOException {
-        String[] parts = path.split("/");
-        
-        if (parts.length != 3) {
-            sendResponse(exchange, 400, "{\"error\": \"ID não fornecido\"}");
-            return;
+    private String toJson(List<Order> orders, Set<String> fields) {
+        if (fields == null) {
+            return gson.toJson(orders);
         }
         
-        try {
-            Long id = Long.parseLong(parts[2]);
-            String body = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
-            
-            JsonObject jsonObject = JsonParser.parseString(body).getAsJsonObject();
-            String status = jsonObject.get("status").getAsString();
-            
-            Order updatedOrder = orderService.updateOrderStatus(id, status);
-            String json = gson.toJson(updatedOrder);
-            sendResponse(exchange, 200, json);
-            
-        } catch (NumberFormatException e) {
-            sendResponse(exchange, 400, "{\"error\": \"ID inválido\"}");
+        JsonArray array = new JsonArray(orders.size());
+        
+        for (Order order : orders) {
+            array.add(project(order, fields));
         }
+        
+        return gson.toJson(array);
     }
     
-    private void handleDelete(HttpExchange exchange, String path) throws SQLException, IOException {
-        String[] parts = path.split("/");
+    private JsonObject project(Order order, Set<String> fields) {
+        JsonObject full = gson.toJsonTree(order).getAsJsonObject();
+        JsonObject projected = new JsonObject();
         
-        if (parts.length != 3) {
-            sendResponse(exchange, 400, "{\"error\": \"ID não fornecido\"}");
-            return;
+        for (String field : fields) {
+            if (full.has(field)) {
+                projected.add(field, full.get(field));
+            }
         }
         
-        try {
-            Long id = Long.parseLong(parts[2]);
-            orderService.deleteOrder(id);
-            sendResponse(exchange, 200, "{\"message\": \"Pedido deletado com sucesso\"}");
-            
-        } catch (NumberFormatException e) {
-            sendResponse(exchange, 400, "{\"error\": \"ID inválido\"}");
-        }
+        return projected;
     }
     
-    private void sendResponse(HttpExchange exchange, int statusCode, String response) throws IOException {
-        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=UTF-8");
-        byte[] bytes = response.getBytes(StandardCharsets.UTF_8);
-        exchange.sendResponseHeaders(statusCode, bytes.length);
-        
-        try (OutputStream os = exchange.getResponseBody()) {
-            os.write(bytes);
+    public CompletableFuture<Void> handlePost(HttpExchange exchange, PathParams params) throws IOException {
+        CreateOrderRequest request = RequestBodies.readJson(exchange, CreateOrderRequest::read);
+
+        if (Log.logRequestBodies()) {
+            LOG.info("JSON recebido", "path", exchange.getRequestURI().getPath(), "body", request);
         }
+
+        return asyncOrderService.createOrder(request.customerName())
+                .thenAccept(AsyncResponses.sending(savedOrder ->
+                        HttpResponses.sendJson(exchange, 201, gson.toJson(savedOrder))));
     }
     
-    private static class LocalDateTimeAdapter implements JsonSerializer<LocalDateTime>, JsonDeserializer<LocalDateTime> {
-        private static final DateTimeFormatter formatter = DateTimeFormatter.ISO_LOCAL_DATE_TIME;
+    public CompletableFuture<Void> handlePut(HttpExchange exchange, PathParams params) throws IOException {
+        long id = params.getLong("id");
+        OrderStatus status = RequestBodies.readJson(exchange, StatusUpdateRequest::read).status();
         
-        @Override
-        public JsonElement serialize(LocalDateTime src, Type typeOfSrc, JsonSerializationContext context) {
-            return new JsonPrimitive(src.format(formatter));
-        }
+        return asyncOrderService.updateOrderStatus(id, status)
+                .exceptionally(error -> {
+                    if (AsyncResponses.unwrap(error) instanceof IllegalStateException e) {
+                        throw new HttpException(409, e.getMessage());
+                    }
+                    throw error instanceof CompletionException ce ? ce : new CompletionException(error);
+                })
+                .thenAccept(AsyncResponses.sending(updatedOrder ->
+                        HttpResponses.sendJson(exchange, 200, gson.toJson(updatedOrder))));
+    }
+    
+    public CompletableFuture<Void> handleDelete(HttpExchange exchange, PathParams params) {
+        long id = params.getLong("id");
         
-        @Override
-        public LocalDateTime deserialize(JsonElement json, Type typeOfT, JsonDeserializationContext context) throws JsonParseException {
-            return LocalDateTime.parse(json.getAsString(), formatter);
-        }
+        return asyncOrderService.deleteOrder(id).thenAccept(AsyncResponses.sending(ignored ->
+                HttpResponses.sendJson(exchange, 200, "{\"message\": \"Pedido deletado com sucesso\"}")));
     }
 }
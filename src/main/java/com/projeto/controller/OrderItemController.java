@@ -1,168 +1,136 @@
 package com.projeto.controller;
 
-import com.google.gson.*;
+import com.google.gson.Gson;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.projeto.config.AppConfig;
+import com.projeto.http.AsyncResponses;
+import com.projeto.http.ETags;
+import com.projeto.http.HttpResponses;
+import com.projeto.http.RequestBodies;
+import com.projeto.logging.Log;
+import com.projeto.logging.Logger;
 import com.projeto.model.OrderItem;
-import com.projeto.service.OrderService;
-import com.projeto.service.OrderServiceImpl;
+import com.projeto.routes.PathParams;
+import com.projeto.service.AsyncOrderService;
 import com.sun.net.httpserver.HttpExchange;
-import com.sun.net.httpserver.HttpHandler;
 
 import java.io.IOException;
-import java.io.OutputStream;
-import java.lang.reflect.Type;
-import java.nio.charset.StandardCharsets;
-import java.sql.SQLException;
-import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
-public class OrderItemController implements HttpHandler {
+public class OrderItemController {
 
-    private final OrderService orderService;
-    private final Gson gson;
+    private static final Logger LOG = Log.getLogger(OrderItemController.class);
+
+    private static final int MAX_BULK_ITEMS = AppConfig.getInt("items.bulk.maxItems", 10_000);
+    private static final long MAX_BULK_BYTES = AppConfig.getLong("items.bulk.maxBodyBytes", 16L * 1024 * 1024);
 
-    public OrderItemController() {
-        this.orderService = new OrderServiceImpl();
+    private final AsyncOrderService orderService;
+    private final Gson gson;
 
-        this.gson = new GsonBuilder()
-                .setPrettyPrinting()
-                .registerTypeAdapter(LocalDateTime.class, new LocalDateTimeAdapter())
-                .create();
+    public OrderItemController(AsyncOrderService orderService, Gson gson) {
+        this.orderService = orderService;
+        this.gson = gson;
     }
 
-    @Override
-    public void handle(HttpExchange exchange) throws IOException {
-        exchange.getResponseHeaders().add("Access-Control-Allow-Origin", "*");
-        exchange.getResponseHeaders().add("Access-Control-Allow-Methods", "GET, POST, DELETE, OPTIONS");
-        exchange.getResponseHeaders().add("Access-Control-Allow-Headers", "Content-Type");
+    /**
+     * Os itens usam o ETag do pedido: toda alteração de item sobe a versão dele.
+     * A versão é lida antes dos itens, então o ETag nunca é mais novo que o corpo.
+     */
+    public CompletableFuture<Void> handleGet(HttpExchange exchange, PathParams params) {
+        long orderId = params.getLong("id");
 
-        String method = exchange.getRequestMethod();
-        String path = exchange.getRequestURI().getPath();
+        return orderService.findOrderVersion(orderId).thenCompose(version -> {
+            if (version.isPresent()) {
+                String etag = ETags.of(orderId, version.getAsLong());
 
-        try {
-            if ("OPTIONS".equals(method)) {
-                exchange.sendResponseHeaders(200, -1);
-                return;
-            }
+                if (ETags.matches(exchange, etag)) {
+                    return AsyncResponses.run(() -> ETags.sendNotModified(exchange, etag));
+                }
 
-            switch (method) {
-                case "GET":
-                    handleGet(exchange, path);
-                    break;
-                case "POST":
-                    handlePost(exchange, path);
-                    break;
-                case "DELETE":
-                    handleDelete(exchange, path);
-                    break;
-                default:
-                    sendResponse(exchange, 405, "{\"error\": \"Method not allowed\"}");
+                ETags.tag(exchange, etag);
             }
-        } catch (Exception e) {
-            e.printStackTrace();
-            sendResponse(exchange, 500, "{\"error\": \"" + e.getMessage() + "\"}");
-        }
-    }
 
-    private void handleGet(HttpExchange exchange, String path) throws SQLException, IOException {
-        String[] parts = path.split("/");
-
-        if (parts.length == 4 && "orders".equals(parts[1]) && "items".equals(parts[3])) {
-            try {
-                Long orderId = Long.parseLong(parts[2]);
-                List<OrderItem> items = orderService.listItems(orderId);
-                String json = gson.toJson(items);
-                sendResponse(exchange, 200, json);
-            } catch (NumberFormatException e) {
-                sendResponse(exchange, 400, "{\"error\": \"ID do pedido inválido\"}");
-            }
-        } else {
-            sendResponse(exchange, 404, "{\"error\": \"Endpoint não encontrado\"}");
-        }
+            return orderService.listItems(orderId).thenAccept(AsyncResponses.sending(items ->
+                    HttpResponses.sendJson(exchange, 200, gson.toJson(items))));
+        });
     }
 
-private void handlePost(HttpExchange exchange, String path) throws IOException {
-    String[] parts = path.split("/");
-
-    if (parts.length == 4 && "orders".equals(parts[1]) && "items".equals(parts[3])) {
-        try {
-            Long orderId = Long.parseLong(parts[2]);
-            String body = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
-
-            System.out.println("📥 JSON recebido: " + body);
+    public CompletableFuture<Void> handlePost(HttpExchange exchange, PathParams params) throws IOException {
+        long orderId = params.getLong("id");
+        AddItemRequest request = RequestBodies.readJson(exchange, AddItemRequest::read);
 
-            if (body.isBlank()) {
-                sendResponse(exchange, 400, "{\"error\": \"Body JSON está vazio\"}");
-                return;
-            }
+        if (Log.logRequestBodies()) {
+            LOG.info("JSON recebido", "path", exchange.getRequestURI().getPath(), "body", request);
+        }
 
-            JsonObject jsonObject = JsonParser.parseString(body).getAsJsonObject();
+        return orderService.addItem(orderId, request.product(), request.quantity(), request.unitPriceCents())
+                .thenAccept(AsyncResponses.sending(savedItem ->
+                        HttpResponses.sendJson(exchange, 201, gson.toJson(savedItem))));
+    }
 
-            // Validação dos campos obrigatórios
-            if (!jsonObject.has("product") || !jsonObject.has("quantity") || !jsonObject.has("unitPrice")) {
-                sendResponse(exchange, 400, "{\"error\": \"Campos obrigatórios: product, quantity, unitPrice\"}");
-                return;
+    /**
+     * POST /orders/{id}/items/bulk
+     * Aceita um array JSON de itens ou NDJSON (Content-Type: application/x-ndjson),
+     * lidos em streaming, e grava tudo numa única transação.
+     */
+    public CompletableFuture<Void> handleBulkPost(HttpExchange exchange, PathParams params) throws IOException {
+        long orderId = params.getLong("id");
+        String contentType = exchange.getRequestHeaders().getFirst("Content-Type");
+        boolean ndjson = contentType != null && contentType.contains("application/x-ndjson");
+
+        List<OrderItem> items = RequestBodies.readJson(exchange, MAX_BULK_BYTES, ndjson, reader -> {
+            List<OrderItem> read = new ArrayList<>();
+
+            if (ndjson) {
+                while (reader.peek() != JsonToken.END_DOCUMENT) {
+                    read.add(readItem(reader, orderId, read.size()));
+                    checkBulkLimit(read);
+                }
+            } else {
+                reader.beginArray();
+                while (reader.hasNext()) {
+                    read.add(readItem(reader, orderId, read.size()));
+                    checkBulkLimit(read);
+                }
+                reader.endArray();
             }
 
-            String product = jsonObject.get("product").getAsString();
-            int quantity = jsonObject.get("quantity").getAsInt();
-            double unitPrice = jsonObject.get("unitPrice").getAsDouble();
+            return read;
+        });
 
-            OrderItem savedItem = orderService.addItem(orderId, product, quantity, unitPrice);
-
-            String json = gson.toJson(savedItem);
-            sendResponse(exchange, 201, json);
-
-        } catch (NumberFormatException e) {
-            sendResponse(exchange, 400, "{\"error\": \"ID do pedido inválido\"}");
-        } catch (Exception e) {
-            e.printStackTrace();
-            sendResponse(exchange, 500, "{\"error\": \"Erro interno ao criar item\"}");
+        if (items.isEmpty()) {
+            HttpResponses.sendError(exchange, 400, "Nenhum item enviado");
+            return AsyncResponses.done();
         }
-    } else {
-        sendResponse(exchange, 404, "{\"error\": \"Endpoint não encontrado\"}");
-    }
-}
-
 
-    private void handleDelete(HttpExchange exchange, String path) throws SQLException, IOException {
-        String[] parts = path.split("/");
-
-        if (parts.length == 3 && "items".equals(parts[1])) {
-            try {
-                Long id = Long.parseLong(parts[2]);
-                orderService.deleteItem(id);
-                sendResponse(exchange, 200, "{\"message\": \"Item deletado com sucesso\"}");
+        return orderService.addItems(orderId, items).thenAccept(AsyncResponses.sending(savedItems ->
+                HttpResponses.sendJson(exchange, 201, gson.toJson(savedItems))));
+    }
 
-            } catch (NumberFormatException e) {
-                sendResponse(exchange, 400, "{\"error\": \"ID inválido\"}");
-            }
-        } else {
-            sendResponse(exchange, 404, "{\"error\": \"Endpoint não encontrado\"}");
+    private OrderItem readItem(JsonReader reader, long orderId, int index) throws IOException {
+        try {
+            return AddItemRequest.read(reader).toItem(orderId);
+        } catch (NumberFormatException e) {
+            // erro de leitura do JSON: RequestBodies já informa o caminho ($[i].campo)
+            throw e;
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Item " + index + ": " + e.getMessage());
         }
     }
 
-    private void sendResponse(HttpExchange exchange, int statusCode, String response) throws IOException {
-        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=UTF-8");
-        byte[] bytes = response.getBytes(StandardCharsets.UTF_8);
-        exchange.sendResponseHeaders(statusCode, bytes.length);
-
-        try (OutputStream os = exchange.getResponseBody()) {
-            os.write(bytes);
+    private void checkBulkLimit(List<OrderItem> items) {
+        if (items.size() > MAX_BULK_ITEMS) {
+            throw new IllegalArgumentException("Máximo de " + MAX_BULK_ITEMS + " itens por requisição");
         }
     }
 
-    private static class LocalDateTimeAdapter implements JsonSerializer<LocalDateTime>, JsonDeserializer<LocalDateTime> {
-        private static final DateTimeFormatter formatter = DateTimeFormatter.ISO_LOCAL_DATE_TIME;
+    public CompletableFuture<Void> handleDelete(HttpExchange exchange, PathParams params) {
+        long id = params.getLong("id");
 
-        @Override
-        public JsonElement serialize(LocalDateTime src, Type typeOfSrc, JsonSerializationContext context) {
-            return new JsonPrimitive(src.format(formatter));
-        }
-
-        @Override
-        public LocalDateTime deserialize(JsonElement json, Type typeOfT, JsonDeserializationContext context) throws JsonParseException {
-            return LocalDateTime.parse(json.getAsString(), formatter);
-        }
+        return orderService.deleteItem(id).thenAccept(AsyncResponses.sending(ignored ->
+                HttpResponses.sendJson(exchange, 200, "{\"message\": \"Item deletado com sucesso\"}")));
     }
 }
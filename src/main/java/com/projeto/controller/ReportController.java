@@ -0,0 +1,107 @@
+package com.projeto.controller;
+
+import com.google.gson.Gson;
+import com.projeto.changes.ChangeLog;
+import com.projeto.http.HttpException;
+import com.projeto.http.HttpResponses;
+import com.projeto.http.QueryParams;
+import com.projeto.reports.RebuildReport;
+import com.projeto.reports.SalesReport;
+import com.projeto.reports.SalesRollup;
+import com.projeto.repository.OrderItemRepository;
+import com.projeto.repository.OrderRepository;
+import com.projeto.routes.PathParams;
+import com.sun.net.httpserver.HttpExchange;
+
+import java.io.IOException;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+public class ReportController {
+
+    public static final int DEFAULT_DAYS = 30;
+    public static final int MAX_DAYS = 366;
+    public static final int DEFAULT_TOP = 10;
+    public static final int MAX_TOP = 100;
+
+    private final SalesRollup rollup;
+    private final OrderRepository orderRepository;
+    private final OrderItemRepository orderItemRepository;
+    private final ChangeLog changes;
+    private final Gson gson;
+    private final AtomicBoolean rebuilding = new AtomicBoolean();
+
+    public ReportController(SalesRollup rollup, OrderRepository orderRepository,
+                            OrderItemRepository orderItemRepository, ChangeLog changes, Gson gson) {
+        this.rollup = rollup;
+        this.orderRepository = orderRepository;
+        this.orderItemRepository = orderItemRepository;
+        this.changes = changes;
+        this.gson = gson;
+    }
+
+    /**
+     * GET /reports?from=&to=&top=
+     * Responde com os contadores em memória; {@code from}/{@code to} (datas
+     * ISO) limitam só o {@code byDay}, que por padrão cobre os últimos
+     * {@value #DEFAULT_DAYS} dias.
+     */
+    public void handleReport(HttpExchange exchange, PathParams pathParams) throws IOException {
+        SalesReport report;
+
+        try {
+            QueryParams params = new QueryParams(exchange.getRequestURI());
+            LocalDate to = params.getDate("to");
+            LocalDate from = params.getDate("from");
+            int top = params.getInt("top", DEFAULT_TOP);
+
+            if (to == null) {
+                to = from != null ? from.plusDays(DEFAULT_DAYS - 1) : LocalDate.now();
+            }
+            if (from == null) {
+                from = to.minusDays(DEFAULT_DAYS - 1);
+            }
+            if (from.isAfter(to)) {
+                throw new IllegalArgumentException("from deve ser anterior ou igual a to");
+            }
+            if (ChronoUnit.DAYS.between(from, to) >= MAX_DAYS) {
+                throw new IllegalArgumentException("O intervalo pode ter no máximo " + MAX_DAYS + " dias");
+            }
+            if (top <= 0 || top > MAX_TOP) {
+                throw new IllegalArgumentException("top deve estar entre 1 e " + MAX_TOP);
+            }
+
+            report = rollup.report(from, to, top);
+        } catch (IllegalArgumentException e) {
+            HttpResponses.sendError(exchange, 400, e.getMessage());
+            return;
+        }
+
+        HttpResponses.sendJson(exchange, 200, gson.toJson(report));
+    }
+
+    /**
+     * POST /reports/rebuild
+     * Recalcula os relatórios lendo todos os pedidos do banco e diz se os
+     * contadores em memória estavam consistentes. Uma reconstrução por vez.
+     */
+    public void handleRebuild(HttpExchange exchange, PathParams pathParams) throws IOException, SQLException {
+        if (!rebuilding.compareAndSet(false, true)) {
+            throw new HttpException(409, "Reconstrução dos relatórios já em andamento");
+        }
+
+        RebuildReport result;
+
+        try {
+            result = rollup.rebuild(orderRepository, orderItemRepository, changes);
+        } catch (IllegalStateException e) {
+            throw new HttpException(409, e.getMessage());
+        } finally {
+            rebuilding.set(false);
+        }
+
+        HttpResponses.sendJson(exchange, 200, gson.toJson(result));
+    }
+}
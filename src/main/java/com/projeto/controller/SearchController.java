@@ -0,0 +1,48 @@
+package com.projeto.controller;
+
+import com.google.gson.Gson;
+import com.projeto.http.HttpResponses;
+import com.projeto.http.QueryParams;
+import com.projeto.repository.OrderQuery;
+import com.projeto.routes.PathParams;
+import com.projeto.search.SearchField;
+import com.projeto.search.SearchIndex;
+import com.projeto.search.SearchResult;
+import com.sun.net.httpserver.HttpExchange;
+
+import java.io.IOException;
+
+public class SearchController {
+
+    private final SearchIndex index;
+    private final Gson gson;
+
+    public SearchController(SearchIndex index, Gson gson) {
+        this.index = index;
+        this.gson = gson;
+    }
+
+    /**
+     * GET /orders/search?q=&field=&limit=
+     * Responde só com o índice em memória, sem consultar o banco.
+     */
+    public void handleSearch(HttpExchange exchange, PathParams pathParams) throws IOException {
+        SearchResult result;
+
+        try {
+            QueryParams params = new QueryParams(exchange.getRequestURI());
+            int limit = params.getInt("limit", OrderQuery.DEFAULT_LIMIT);
+
+            if (limit <= 0 || limit > OrderQuery.MAX_LIMIT) {
+                throw new IllegalArgumentException("limit deve estar entre 1 e " + OrderQuery.MAX_LIMIT);
+            }
+
+            result = index.search(params.get("q"), SearchField.parse(params.get("field")), limit);
+        } catch (IllegalArgumentException e) {
+            HttpResponses.sendError(exchange, 400, e.getMessage());
+            return;
+        }
+
+        HttpResponses.sendJson(exchange, 200, gson.toJson(result));
+    }
+}
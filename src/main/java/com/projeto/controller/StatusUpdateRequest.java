@@ -0,0 +1,29 @@
+package com.projeto.controller;
+
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.projeto.model.OrderStatus;
+
+import java.io.IOException;
+
+/**
+ * Corpo do PUT /orders/{id}: {@code {"status": "CONFIRMED"}}.
+ */
+public record StatusUpdateRequest(OrderStatus status) {
+
+    public static StatusUpdateRequest read(JsonReader reader) throws IOException {
+        String status = null;
+
+        reader.beginObject();
+        while (reader.hasNext()) {
+            if (reader.nextName().equals("status") && reader.peek() != JsonToken.NULL) {
+                status = reader.nextString();
+            } else {
+                reader.skipValue();
+            }
+        }
+        reader.endObject();
+
+        return new StatusUpdateRequest(OrderStatus.parse(status));
+    }
+}
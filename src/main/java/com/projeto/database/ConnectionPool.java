@@ -0,0 +1,306 @@
+package com.projeto.database;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.util.concurrent.BlockingDeque;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Pool de conexões JDBC limitado.
+ *
+ * Cada conexão entregue é um proxy: chamar close() devolve a conexão ao pool
+ * em vez de fechá-la, então os repositórios continuam usando try-with-resources.
+ */
+public class ConnectionPool implements AutoCloseable {
+
+    private final String url;
+    private final String user;
+    private final String password;
+    private final int maxSize;
+    private final long maxWaitMillis;
+    private final long validateAfterIdleMillis;
+    private final long maxLifetimeMillis;
+
+    private final Semaphore permits;
+    private final BlockingDeque<PooledConnection> idle = new LinkedBlockingDeque<>();
+    private final AtomicInteger total = new AtomicInteger();
+    private final AtomicBoolean closed = new AtomicBoolean();
+
+    private final LongAdder acquired = new LongAdder();
+    private final LongAdder timeouts = new LongAdder();
+    private final LongAdder created = new LongAdder();
+    private final LongAdder discarded = new LongAdder();
+    private final LongAdder waitNanos = new LongAdder();
+
+    public ConnectionPool(String url, String user, String password,
+                          int maxSize, long maxWaitMillis,
+                          long validateAfterIdleMillis, long maxLifetimeMillis) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("Tamanho do pool deve ser maior que zero");
+        }
+
+        this.url = url;
+        this.user = user;
+        this.password = password;
+        this.maxSize = maxSize;
+        this.maxWaitMillis = maxWaitMillis;
+        this.validateAfterIdleMillis = validateAfterIdleMillis;
+        this.maxLifetimeMillis = maxLifetimeMillis;
+        this.permits = new Semaphore(maxSize, true);
+    }
+
+    public Connection getConnection() throws SQLException {
+        if (closed.get()) {
+            throw new SQLException("Pool de conexões encerrado");
+        }
+
+        long start = System.nanoTime();
+
+        try {
+            if (!permits.tryAcquire(maxWaitMillis, TimeUnit.MILLISECONDS)) {
+                timeouts.increment();
+                throw new SQLTimeoutException(
+                        "Tempo esgotado aguardando conexão do pool (" + maxWaitMillis + " ms)");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrompido aguardando conexão do pool", e);
+        }
+
+        waitNanos.add(System.nanoTime() - start);
+        return checkout();
+    }
+
+    /**
+     * Pega uma conexão só se houver uma livre agora, sem passar à frente de
+     * quem já está esperando. Para leituras de monitoramento, que não devem
+     * disputar o pool com as requisições.
+     *
+     * @return {@code null} se o pool estiver esgotado ou encerrado
+     */
+    public Connection tryGetConnection() throws SQLException {
+        if (closed.get()) {
+            return null;
+        }
+
+        try {
+            if (!permits.tryAcquire(0, TimeUnit.MILLISECONDS)) {
+                return null;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+
+        return checkout();
+    }
+
+    /**
+     * Entrega uma conexão ociosa válida ou abre uma nova; a vaga já foi obtida.
+     */
+    private Connection checkout() throws SQLException {
+        try {
+            PooledConnection pooled;
+
+            while ((pooled = idle.pollFirst()) != null) {
+                if (isUsable(pooled)) {
+                    break;
+                }
+                discard(pooled);
+            }
+
+            if (pooled == null) {
+                pooled = open();
+            }
+
+            acquired.increment();
+            return pooled.lease();
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    /**
+     * Abre conexões até ter {@code count} ociosas, para evitar a latência
+     * de conexão nas primeiras requisições.
+     */
+    public void prefill(int count) throws SQLException {
+        int target = Math.min(count, maxSize);
+
+        while (total.get() < target) {
+            idle.offerLast(open());
+        }
+    }
+
+    public PoolStats getStats() {
+        int totalNow = total.get();
+        int idleNow = idle.size();
+        long acquiredNow = acquired.sum();
+
+        return new PoolStats(
+                maxSize,
+                totalNow,
+                idleNow,
+                maxSize - permits.availablePermits(),
+                permits.getQueueLength(),
+                acquiredNow,
+                timeouts.sum(),
+                created.sum(),
+                discarded.sum(),
+                acquiredNow == 0 ? 0 : waitNanos.sum() / acquiredNow / 1_000
+        );
+    }
+
+    @Override
+    public void close() {
+        if (!closed.compareAndSet(false, true)) {
+            return;
+        }
+
+        PooledConnection pooled;
+        while ((pooled = idle.pollFirst()) != null) {
+            discard(pooled);
+        }
+    }
+
+    private PooledConnection open() throws SQLException {
+        Connection raw = DriverManager.getConnection(url, user, password);
+        total.incrementAndGet();
+        created.increment();
+        return new PooledConnection(raw);
+    }
+
+    private boolean isUsable(PooledConnection pooled) {
+        long now = System.currentTimeMillis();
+
+        if (now - pooled.createdAt > maxLifetimeMillis) {
+            return false;
+        }
+
+        if (now - pooled.lastUsedAt < validateAfterIdleMillis) {
+            return true;
+        }
+
+        try {
+            return pooled.raw.isValid(2);
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    private void discard(PooledConnection pooled) {
+        total.decrementAndGet();
+        discarded.increment();
+
+        try {
+            pooled.raw.close();
+        } catch (SQLException ignored) {
+            // a conexão já está sendo descartada
+        }
+    }
+
+    private void release(PooledConnection pooled) {
+        try {
+            boolean reusable = !closed.get()
+                    && !pooled.raw.isClosed()
+                    && System.currentTimeMillis() - pooled.createdAt <= maxLifetimeMillis;
+
+            if (reusable) {
+                reset(pooled.raw);
+                pooled.lastUsedAt = System.currentTimeMillis();
+                idle.offerFirst(pooled);
+            } else {
+                discard(pooled);
+            }
+        } catch (SQLException e) {
+            discard(pooled);
+        } finally {
+            permits.release();
+        }
+    }
+
+    private void reset(Connection raw) throws SQLException {
+        if (!raw.getAutoCommit()) {
+            raw.rollback();
+            raw.setAutoCommit(true);
+        }
+
+        if (raw.isReadOnly()) {
+            raw.setReadOnly(false);
+        }
+
+        raw.clearWarnings();
+    }
+
+    private final class PooledConnection {
+
+        private final Connection raw;
+        private final long createdAt = System.currentTimeMillis();
+        private volatile long lastUsedAt = createdAt;
+
+        private PooledConnection(Connection raw) {
+            this.raw = raw;
+        }
+
+        private Connection lease() {
+            return (Connection) Proxy.newProxyInstance(
+                    Connection.class.getClassLoader(),
+                    new Class<?>[]{Connection.class},
+                    new Lease(this)
+            );
+        }
+    }
+
+    private final class Lease implements InvocationHandler {
+
+        private final PooledConnection pooled;
+        private final AtomicBoolean returned = new AtomicBoolean();
+
+        private Lease(PooledConnection pooled) {
+            this.pooled = pooled;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (returned.compareAndSet(false, true)) {
+                        release(pooled);
+                    }
+                    return null;
+                case "isClosed":
+                    return returned.get() || pooled.raw.isClosed();
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "PooledConnection[" + pooled.raw + "]";
+                default:
+                    break;
+            }
+
+            if (returned.get()) {
+                throw new SQLException("Conexão já devolvida ao pool");
+            }
+
+            try {
+                return method.invoke(pooled.raw, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+}
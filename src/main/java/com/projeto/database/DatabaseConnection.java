@@ -1,69 +1,162 @@
 package com.projeto.database;
 
+import com.projeto.config.AppConfig;
+
 import java.sql.Connection;
-import java.sql.DriverManager;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.util.Map;
 
 public class DatabaseConnection {
 
-    private static final String URL = "jdbc:h2:mem:shopping_cart;DB_CLOSE_DELAY=-1";
     private static final String USER = "sa";
     private static final String PASSWORD = "";
 
-    private static Connection connection;
+    private static volatile ConnectionPool pool;
+    private static DatabaseSettings settings;
+    private static volatile StorageStats storageStats;
+
+    /**
+     * Cria o pool e aplica as migrações pendentes uma única vez, na inicialização.
+     * No modo file, um banco já migrado abre sem executar nenhum DDL.
+     */
+    public static synchronized void initialize() throws SQLException {
+        if (pool != null) {
+            return;
+        }
+
+        try {
+            Class.forName("org.h2.Driver");
+        } catch (ClassNotFoundException e) {
+            throw new SQLException("Driver H2 não encontrado", e);
+        }
+
+        long start = System.nanoTime();
+        DatabaseSettings newSettings = DatabaseSettings.fromConfig();
+
+        int maxSize = maxPoolSize();
+
+        ConnectionPool newPool = new ConnectionPool(
+                newSettings.jdbcUrl(), USER, PASSWORD,
+                maxSize,
+                AppConfig.getLong("db.pool.maxWaitMs", 5_000),
+                AppConfig.getLong("db.pool.validateAfterIdleMs", 30_000),
+                AppConfig.getLong("db.pool.maxLifetimeMs", 30 * 60_000)
+        );
+
+        int applied;
+
+        try (Connection conn = newPool.getConnection()) {
+            applied = SchemaMigrator.migrate(conn);
+        }
+
+        newPool.prefill(AppConfig.getInt("db.pool.minIdle", Math.min(2, maxSize)));
+        boolean warmStart = applied == 0;
+        long openMillis = (System.nanoTime() - start) / 1_000_000;
+
+        pool = newPool;
+        settings = newSettings;
+        storageStats = new StorageStats(newSettings.mode(), warmStart, openMillis, SchemaMigrator.latestVersion());
+
+        System.out.println("✅ Pool de conexões H2 iniciado (máx. " + maxSize + " conexões)");
+        System.out.println("✅ Banco " + (newSettings.isFile() ? "em arquivo " + newSettings.path() : "em memória")
+                + (warmStart ? " já atualizado" : " migrado para a versão " + SchemaMigrator.latestVersion())
+                + " (" + openMillis + " ms)");
+    }
+
+    /**
+     * Tamanho máximo do pool ({@code db.pool.size}); também dimensiona o {@link DatabaseExecutor}.
+     */
+    public static int maxPoolSize() {
+        return AppConfig.getInt("db.pool.size", Math.max(4, Runtime.getRuntime().availableProcessors() * 2));
+    }
 
     public static Connection getConnection() throws SQLException {
-        if (connection == null || connection.isClosed()) {
+        ConnectionPool current = pool;
+
+        if (current == null) {
+            initialize();
+            current = pool;
+        }
+
+        return current.getConnection();
+    }
+
+    /**
+     * Executa o trabalho numa única transação: commit no fim, rollback em
+     * qualquer erro. A conexão volta ao pool com autocommit restaurado.
+     */
+    public static <T> T inTransaction(SqlWork<T> work) throws SQLException {
+        try (Connection conn = getConnection()) {
+            conn.setAutoCommit(false);
+
             try {
-                Class.forName("org.h2.Driver");
-                connection = DriverManager.getConnection(URL, USER, PASSWORD);
-                System.out.println("✅ Conexão com H2 estabelecida!");
-                initializeDatabase();
-            } catch (ClassNotFoundException e) {
-                throw new SQLException("Driver H2 não encontrado", e);
+                T result = work.execute(conn);
+                conn.commit();
+                return result;
+            } catch (SQLException | RuntimeException e) {
+                conn.rollback();
+                throw e;
             }
         }
-        return connection;
     }
 
-    private static void initializeDatabase() throws SQLException {
-        try (Statement stmt = connection.createStatement()) {
-
-            stmt.execute("""
-                CREATE TABLE IF NOT EXISTS orders (
-                    id BIGINT AUTO_INCREMENT PRIMARY KEY,
-                    customer_name VARCHAR(100) NOT NULL,
-                    total_value DOUBLE NOT NULL DEFAULT 0.0,
-                    status VARCHAR(50) NOT NULL DEFAULT 'PENDING',
-                    created_at TIMESTAMP NOT NULL
-                )
-            """);
-
-            stmt.execute("""
-                CREATE TABLE IF NOT EXISTS order_items (
-                    id BIGINT AUTO_INCREMENT PRIMARY KEY,
-                    order_id BIGINT NOT NULL,
-                    product VARCHAR(255) NOT NULL,
-                    quantity INT NOT NULL,
-                    unit_price DOUBLE NOT NULL DEFAULT 0.0,
-                    created_at TIMESTAMP NOT NULL,
-                    FOREIGN KEY (order_id) REFERENCES orders(id) ON DELETE CASCADE
-                )
-            """);
-
-            System.out.println("✅ Tabelas criadas/verificadas!");
+    public static PoolStats getPoolStats() {
+        ConnectionPool current = pool;
+        return current == null ? null : current.getStats();
+    }
+
+    /**
+     * Dados da abertura do banco, para o /health. Não usa conexão: com o pool
+     * esgotado, o /health continua respondendo.
+     *
+     * @return {@code null} antes de {@link #initialize}
+     */
+    public static StorageStats getStorageStats() {
+        return storageStats;
+    }
+
+    /**
+     * Contadores de E/S e de cache do MVStore, para o /metrics. Usa uma
+     * conexão do pool só se houver uma livre, sem esperar.
+     *
+     * @return {@code null} com o pool esgotado ou ainda não iniciado
+     */
+    public static Map<String, String> getStoreCounters() throws SQLException {
+        ConnectionPool current = pool;
+
+        if (current == null) {
+            return null;
+        }
+
+        try (Connection conn = current.tryGetConnection()) {
+            return conn == null ? null : StorageStats.readStore(conn);
         }
     }
 
-    public static void closeConnection() {
-        try {
-            if (connection != null && !connection.isClosed()) {
-                connection.close();
-                System.out.println("❌ Conexão fechada");
+    public static synchronized void closeConnection() {
+        if (pool != null) {
+            if (settings.isFile() && settings.compactOnShutdown()) {
+                compact();
             }
+
+            pool.close();
+            pool = null;
+            System.out.println("❌ Pool de conexões encerrado");
+        }
+    }
+
+    /**
+     * SHUTDOWN COMPACT fecha o banco reescrevendo o arquivo sem espaço livre;
+     * mais lento que o fechamento normal, por isso só quando configurado.
+     */
+    private static void compact() {
+        try (Connection conn = pool.getConnection();
+             Statement stmt = conn.createStatement()) {
+            stmt.execute("SHUTDOWN COMPACT");
+            System.out.println("✅ Banco compactado no encerramento");
         } catch (SQLException e) {
-            e.printStackTrace();
+            System.err.println("⚠️ Falha ao compactar o banco: " + e.getMessage());
         }
     }
 }
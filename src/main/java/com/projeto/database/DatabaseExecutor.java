@@ -0,0 +1,116 @@
+package com.projeto.database;
+
+import java.sql.SQLException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Executor dedicado ao JDBC, com uma thread por conexão do pool: mais
+ * threads só ficariam esperando conexão livre. A fila é limitada; cheia,
+ * o trabalho é recusado com {@link RejectedExecutionException} (o Router
+ * responde 503), em vez de acumular requisições sem fim.
+ *
+ * As threads de banco só executam o JDBC: os futures são completados numa
+ * virtual thread, então serialização e escrita da resposta, encadeadas por
+ * quem chamou, nunca ocupam uma thread de banco.
+ */
+public class DatabaseExecutor {
+
+    @FunctionalInterface
+    public interface SqlSupplier<T> {
+
+        T get() throws SQLException;
+    }
+
+    private final ThreadPoolExecutor executor;
+    private final ExecutorService callbacks;
+    private final int queueCapacity;
+    private final LongAdder rejected = new LongAdder();
+
+    public DatabaseExecutor(int threads, int queueCapacity) {
+        AtomicInteger counter = new AtomicInteger();
+
+        this.queueCapacity = queueCapacity;
+        this.executor = new ThreadPoolExecutor(
+                threads, threads,
+                60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "db-" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        this.executor.allowCoreThreadTimeOut(true);
+        this.callbacks = Executors.newThreadPerTaskExecutor(
+                Thread.ofVirtual().name("db-callback-", 0).factory());
+    }
+
+    /**
+     * Executa {@code work} numa thread de banco.
+     */
+    public <T> CompletableFuture<T> supply(SqlSupplier<T> work) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+
+        try {
+            executor.execute(() -> {
+                try {
+                    T value = work.get();
+                    complete(() -> result.complete(value));
+                } catch (Throwable e) {
+                    complete(() -> result.completeExceptionally(e));
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            result.completeExceptionally(e);
+        }
+
+        return result;
+    }
+
+    /**
+     * Executor das continuações (virtual threads), para etapas que não são JDBC.
+     */
+    public Executor callbacks() {
+        return callbacks;
+    }
+
+    public ExecutorStats stats() {
+        return new ExecutorStats(
+                executor.getMaximumPoolSize(),
+                executor.getActiveCount(),
+                executor.getQueue().size(),
+                queueCapacity,
+                executor.getCompletedTaskCount(),
+                rejected.sum());
+    }
+
+    public void shutdown() {
+        executor.shutdown();
+
+        try {
+            executor.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        callbacks.shutdown();
+    }
+
+    private void complete(Runnable completion) {
+        try {
+            callbacks.execute(completion);
+        } catch (RejectedExecutionException e) {
+            // encerrando: completa aqui mesmo
+            completion.run();
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.projeto.database;
+
+import com.projeto.config.AppConfig;
+
+/**
+ * Modo de persistência do H2:
+ * <ul>
+ *     <li>{@code mem}: banco em memória, perdido a cada reinício (padrão);</li>
+ *     <li>{@code file}: MVStore em arquivo, com cache, atraso de escrita e compactação ajustáveis.</li>
+ * </ul>
+ */
+public record DatabaseSettings(
+        String mode,
+        String path,
+        int cacheSizeKb,
+        int writeDelayMs,
+        int maxCompactTimeMs,
+        int autoCompactFillRate,
+        boolean compactOnShutdown
+) {
+
+    public static DatabaseSettings fromConfig() {
+        String mode = AppConfig.get("db.mode", "mem");
+
+        if (!"mem".equals(mode) && !"file".equals(mode)) {
+            throw new IllegalArgumentException("db.mode inválido: " + mode + " (use mem ou file)");
+        }
+
+        return new DatabaseSettings(
+                mode,
+                AppConfig.get("db.path", "./data/shopping_cart"),
+                AppConfig.getInt("db.cacheSizeKb", 64 * 1024),
+                AppConfig.getInt("db.writeDelayMs", 500),
+                AppConfig.getInt("db.maxCompactTimeMs", 200),
+                AppConfig.getInt("db.autoCompactFillRate", 90),
+                AppConfig.getBoolean("db.compactOnShutdown", false)
+        );
+    }
+
+    public boolean isFile() {
+        return "file".equals(mode);
+    }
+
+    /**
+     * No modo file o banco é fechado pelo shutdown hook da aplicação, depois
+     * que o servidor para de aceitar requisições (DB_CLOSE_ON_EXIT=FALSE).
+     */
+    public String jdbcUrl() {
+        if (!isFile()) {
+            return "jdbc:h2:mem:shopping_cart;DB_CLOSE_DELAY=-1";
+        }
+
+        return "jdbc:h2:file:" + path +
+                ";CACHE_SIZE=" + cacheSizeKb +
+                ";WRITE_DELAY=" + writeDelayMs +
+                ";MAX_COMPACT_TIME=" + maxCompactTimeMs +
+                ";AUTO_COMPACT_FILL_RATE=" + autoCompactFillRate +
+                ";DB_CLOSE_ON_EXIT=FALSE";
+    }
+}
@@ -0,0 +1,20 @@
+package com.projeto.database;
+
+public record ExecutorStats(
+        int threads,
+        int active,
+        int queued,
+        int queueCapacity,
+        long completed,
+        long rejected
+) {
+
+    public String toJson() {
+        return "{\"threads\": " + threads +
+                ", \"active\": " + active +
+                ", \"queued\": " + queued +
+                ", \"queueCapacity\": " + queueCapacity +
+                ", \"completed\": " + completed +
+                ", \"rejected\": " + rejected + "}";
+    }
+}
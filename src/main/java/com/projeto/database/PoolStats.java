@@ -0,0 +1,28 @@
+package com.projeto.database;
+
+public record PoolStats(
+        int maxSize,
+        int total,
+        int idle,
+        int active,
+        int waiting,
+        long acquired,
+        long timeouts,
+        long created,
+        long discarded,
+        long avgWaitMicros
+) {
+
+    public String toJson() {
+        return "{\"maxSize\": " + maxSize +
+                ", \"total\": " + total +
+                ", \"idle\": " + idle +
+                ", \"active\": " + active +
+                ", \"waiting\": " + waiting +
+                ", \"acquired\": " + acquired +
+                ", \"timeouts\": " + timeouts +
+                ", \"created\": " + created +
+                ", \"discarded\": " + discarded +
+                ", \"avgWaitMicros\": " + avgWaitMicros + "}";
+    }
+}
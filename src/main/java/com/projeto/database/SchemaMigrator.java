@@ -0,0 +1,158 @@
+package com.projeto.database;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+
+/**
+ * Versiona o esquema do banco na tabela schema_version.
+ *
+ * Na inicialização só as migrações ainda não aplicadas são executadas; com um
+ * banco em arquivo já atualizado nenhum DDL roda (reinício "a quente").
+ * Novas mudanças de esquema entram no fim de {@link #MIGRATIONS}.
+ */
+public final class SchemaMigrator {
+
+    private record Migration(int version, String description, String... statements) {
+    }
+
+    private static final List<Migration> MIGRATIONS = List.of(
+            new Migration(1, "tabelas orders e order_items",
+                    """
+                    CREATE TABLE IF NOT EXISTS orders (
+                        id BIGINT AUTO_INCREMENT PRIMARY KEY,
+                        customer_name VARCHAR(100) NOT NULL,
+                        total_value DOUBLE NOT NULL DEFAULT 0.0,
+                        status VARCHAR(50) NOT NULL DEFAULT 'PENDING',
+                        created_at TIMESTAMP NOT NULL
+                    )
+                    """,
+                    """
+                    CREATE TABLE IF NOT EXISTS order_items (
+                        id BIGINT AUTO_INCREMENT PRIMARY KEY,
+                        order_id BIGINT NOT NULL,
+                        product VARCHAR(255) NOT NULL,
+                        quantity INT NOT NULL,
+                        unit_price DOUBLE NOT NULL DEFAULT 0.0,
+                        created_at TIMESTAMP NOT NULL,
+                        FOREIGN KEY (order_id) REFERENCES orders(id) ON DELETE CASCADE
+                    )
+                    """),
+            new Migration(2, "índices da listagem paginada",
+                    "CREATE INDEX IF NOT EXISTS idx_orders_created ON orders (created_at DESC, id DESC)",
+                    "CREATE INDEX IF NOT EXISTS idx_orders_status_created ON orders (status, created_at, id)",
+                    "CREATE INDEX IF NOT EXISTS idx_orders_customer_created ON orders (customer_name, created_at, id)"),
+            new Migration(3, "valores monetários em centavos (BIGINT)",
+                    "ALTER TABLE orders ADD COLUMN total_cents BIGINT NOT NULL DEFAULT 0",
+                    "UPDATE orders SET total_cents = CAST(ROUND(total_value * 100) AS BIGINT)",
+                    "ALTER TABLE orders DROP COLUMN total_value",
+                    "ALTER TABLE order_items ADD COLUMN unit_price_cents BIGINT NOT NULL DEFAULT 0",
+                    "UPDATE order_items SET unit_price_cents = CAST(ROUND(unit_price * 100) AS BIGINT)",
+                    "ALTER TABLE order_items DROP COLUMN unit_price",
+                    "UPDATE orders o SET total_cents = (SELECT COALESCE(SUM(i.unit_price_cents * i.quantity), 0) " +
+                            "FROM order_items i WHERE i.order_id = o.id)"),
+            new Migration(4, "status do pedido como SMALLINT (OrderStatus.code)",
+                    "ALTER TABLE orders ADD COLUMN status_code SMALLINT NOT NULL DEFAULT 0",
+                    "UPDATE orders SET status_code = CASE status WHEN 'CONFIRMED' THEN 1 WHEN 'CANCELLED' THEN 2 ELSE 0 END",
+                    "DROP INDEX IF EXISTS idx_orders_status_created",
+                    "ALTER TABLE orders DROP COLUMN status",
+                    "ALTER TABLE orders ALTER COLUMN status_code RENAME TO status",
+                    "CREATE INDEX idx_orders_status_created ON orders (status, created_at, id)"),
+            new Migration(5, "versão do pedido para ETag",
+                    "ALTER TABLE orders ADD COLUMN version BIGINT NOT NULL DEFAULT 0"),
+            new Migration(6, "respostas guardadas por Idempotency-Key",
+                    """
+                    CREATE TABLE idempotency_keys (
+                        idempotency_key VARCHAR(512) PRIMARY KEY,
+                        fingerprint VARCHAR(64) NOT NULL,
+                        status INT NOT NULL,
+                        content_type VARCHAR(100) NOT NULL,
+                        body CLOB NOT NULL,
+                        created_at TIMESTAMP NOT NULL
+                    )
+                    """,
+                    "CREATE INDEX idx_idempotency_created ON idempotency_keys (created_at)")
+    );
+
+    private SchemaMigrator() {
+    }
+
+    public static int latestVersion() {
+        return MIGRATIONS.get(MIGRATIONS.size() - 1).version();
+    }
+
+    /**
+     * @return quantas migrações foram aplicadas (0 quando o esquema já estava atualizado)
+     */
+    public static int migrate(Connection conn) throws SQLException {
+        int current = currentVersion(conn);
+
+        if (current >= latestVersion()) {
+            return 0;
+        }
+
+        int applied = 0;
+
+        for (Migration migration : MIGRATIONS) {
+            if (migration.version() <= current) {
+                continue;
+            }
+
+            boolean autoCommit = conn.getAutoCommit();
+            conn.setAutoCommit(false);
+
+            try (Statement stmt = conn.createStatement();
+                 PreparedStatement record = conn.prepareStatement(
+                         "INSERT INTO schema_version (version, description, applied_at) VALUES (?, ?, CURRENT_TIMESTAMP)")) {
+
+                for (String sql : migration.statements()) {
+                    stmt.execute(sql);
+                }
+
+                record.setInt(1, migration.version());
+                record.setString(2, migration.description());
+                record.executeUpdate();
+
+                conn.commit();
+                applied++;
+                System.out.println("✅ Migração " + migration.version() + " aplicada: " + migration.description());
+            } catch (SQLException e) {
+                conn.rollback();
+                throw new SQLException("Falha na migração " + migration.version() + ": " + e.getMessage(), e);
+            } finally {
+                conn.setAutoCommit(autoCommit);
+            }
+        }
+
+        return applied;
+    }
+
+    private static int currentVersion(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            try (ResultSet rs = stmt.executeQuery(
+                    "SELECT COUNT(*) FROM INFORMATION_SCHEMA.TABLES " +
+                    "WHERE TABLE_SCHEMA = 'PUBLIC' AND TABLE_NAME = 'SCHEMA_VERSION'")) {
+                rs.next();
+
+                if (rs.getInt(1) == 0) {
+                    stmt.execute("""
+                        CREATE TABLE schema_version (
+                            version INT PRIMARY KEY,
+                            description VARCHAR(255) NOT NULL,
+                            applied_at TIMESTAMP NOT NULL
+                        )
+                    """);
+                    return 0;
+                }
+            }
+
+            try (ResultSet rs = stmt.executeQuery("SELECT COALESCE(MAX(version), 0) FROM schema_version")) {
+                rs.next();
+                return rs.getInt(1);
+            }
+        }
+    }
+}
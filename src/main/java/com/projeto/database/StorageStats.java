@@ -0,0 +1,59 @@
+package com.projeto.database;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Como o banco foi aberto (modo, reinício a quente, tempo de abertura e
+ * versão do esquema). É fixo depois da inicialização, então o /health lê
+ * sem ir ao banco. Os contadores de E/S do MVStore
+ * (INFORMATION_SCHEMA.SETTINGS, chaves info.*) precisam de uma conexão e
+ * saem só no /metrics ({@link #readStore}).
+ */
+public record StorageStats(
+        String mode,
+        boolean warmStart,
+        long openMillis,
+        int schemaVersion
+) {
+
+    private static final String[] STORE_KEYS = {
+            "info.FILE_SIZE", "info.FILE_READ", "info.FILE_READ_BYTES",
+            "info.FILE_WRITE", "info.FILE_WRITE_BYTES", "info.CACHE_SIZE",
+            "info.CACHE_MAX_SIZE", "info.CACHE_HIT_RATIO", "info.CHUNKS_FILL_RATE"
+    };
+
+    static Map<String, String> readStore(Connection conn) throws SQLException {
+        Map<String, String> store = new LinkedHashMap<>();
+
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(
+                     "SELECT SETTING_NAME, SETTING_VALUE FROM INFORMATION_SCHEMA.SETTINGS " +
+                     "WHERE SETTING_NAME LIKE 'info.%'")) {
+
+            Map<String, String> all = new LinkedHashMap<>();
+            while (rs.next()) {
+                all.put(rs.getString(1), rs.getString(2));
+            }
+
+            for (String key : STORE_KEYS) {
+                if (all.containsKey(key)) {
+                    store.put(key.substring("info.".length()), all.get(key));
+                }
+            }
+        }
+
+        return store;
+    }
+
+    public String toJson() {
+        return "{\"mode\": \"" + mode + "\"" +
+                ", \"warmStart\": " + warmStart +
+                ", \"openMillis\": " + openMillis +
+                ", \"schemaVersion\": " + schemaVersion + "}";
+    }
+}
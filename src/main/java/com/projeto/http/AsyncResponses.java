@@ -0,0 +1,68 @@
+package com.projeto.http;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Consumer;
+
+/**
+ * Envio de respostas dentro de etapas de CompletableFuture, que não aceitam
+ * IOException: ela viaja embrulhada e {@link #unwrap} recupera a causa.
+ */
+public final class AsyncResponses {
+
+    @FunctionalInterface
+    public interface IOAction {
+        void run() throws IOException;
+    }
+
+    @FunctionalInterface
+    public interface IOConsumer<T> {
+        void accept(T value) throws IOException;
+    }
+
+    private AsyncResponses() {
+    }
+
+    public static CompletableFuture<Void> done() {
+        return CompletableFuture.completedFuture(null);
+    }
+
+    /**
+     * Executa o envio agora e devolve um estágio já completo (ou falho).
+     */
+    public static CompletableFuture<Void> run(IOAction action) {
+        try {
+            action.run();
+            return done();
+        } catch (IOException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    public static <T> Consumer<T> sending(IOConsumer<T> consumer) {
+        return value -> {
+            try {
+                consumer.accept(value);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        };
+    }
+
+    /**
+     * Causa original de uma falha vinda de um CompletableFuture.
+     */
+    public static Throwable unwrap(Throwable error) {
+        Throwable current = error;
+
+        while ((current instanceof CompletionException || current instanceof ExecutionException
+                || current instanceof UncheckedIOException) && current.getCause() != null) {
+            current = current.getCause();
+        }
+
+        return current;
+    }
+}
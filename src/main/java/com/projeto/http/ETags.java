@@ -0,0 +1,66 @@
+package com.projeto.http;
+
+import com.sun.net.httpserver.HttpExchange;
+
+import java.io.IOException;
+
+/**
+ * ETags fracos derivados da versão do pedido (W/"id-versão") e tratamento
+ * de If-None-Match. Fracos porque o mesmo pedido pode sair com formatações
+ * diferentes (json.pretty, compressão) e continuar equivalente.
+ */
+public final class ETags {
+
+    private ETags() {
+    }
+
+    public static String of(long id, long version) {
+        return "W/\"" + id + "-" + version + "\"";
+    }
+
+    /**
+     * Comparação fraca (RFC 9110, 13.1.2) contra cada valor do If-None-Match;
+     * {@code *} casa com qualquer representação existente.
+     */
+    public static boolean matches(HttpExchange exchange, String etag) {
+        String header = exchange.getRequestHeaders().getFirst("If-None-Match");
+
+        if (header == null) {
+            return false;
+        }
+
+        String opaque = opaque(etag);
+
+        for (String candidate : header.split(",")) {
+            String value = candidate.trim();
+
+            if (value.equals("*") || opaque(value).equals(opaque)) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    public static boolean isConditional(HttpExchange exchange) {
+        return exchange.getRequestHeaders().containsKey("If-None-Match");
+    }
+
+    /**
+     * Marca a resposta com o ETag e pede ao cliente que revalide antes de reutilizá-la.
+     */
+    public static void tag(HttpExchange exchange, String etag) {
+        exchange.getResponseHeaders().set("ETag", etag);
+        exchange.getResponseHeaders().set("Cache-Control", "no-cache");
+    }
+
+    public static void sendNotModified(HttpExchange exchange, String etag) throws IOException {
+        tag(exchange, etag);
+        exchange.sendResponseHeaders(304, -1);
+        exchange.close();
+    }
+
+    private static String opaque(String etag) {
+        return etag.startsWith("W/") ? etag.substring(2) : etag;
+    }
+}
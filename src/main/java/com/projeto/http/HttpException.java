@@ -0,0 +1,20 @@
+package com.projeto.http;
+
+/**
+ * Erro que já sabe qual status HTTP deve virar.
+ */
+public class HttpException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final int status;
+
+    public HttpException(int status, String message) {
+        super(message);
+        this.status = status;
+    }
+
+    public int getStatus() {
+        return status;
+    }
+}
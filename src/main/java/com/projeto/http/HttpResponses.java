@@ -0,0 +1,76 @@
+package com.projeto.http;
+
+import com.sun.net.httpserver.HttpExchange;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+
+public final class HttpResponses {
+
+    public static final String JSON = "application/json; charset=UTF-8";
+
+    private HttpResponses() {
+    }
+
+    public static void sendJson(HttpExchange exchange, int statusCode, String body) throws IOException {
+        sendText(exchange, statusCode, JSON, body);
+    }
+
+    /**
+     * Comprime com gzip/deflate quando o cliente aceita e o corpo passa do
+     * mínimo configurado (ver {@link ResponseCompression}).
+     */
+    public static void sendText(HttpExchange exchange, int statusCode, String contentType, String body) throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", contentType);
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        ResponseCapture.record(exchange, statusCode, contentType, body);
+
+        if (ResponseCompression.trySend(exchange, statusCode, bytes)) {
+            return;
+        }
+
+        exchange.sendResponseHeaders(statusCode, bytes.length);
+
+        try (OutputStream os = exchange.getResponseBody()) {
+            os.write(bytes);
+        }
+    }
+
+    public static void sendError(HttpExchange exchange, int statusCode, String message) throws IOException {
+        sendJson(exchange, statusCode, "{\"error\": \"" + escape(message) + "\"}");
+    }
+
+    public static void sendMessage(HttpExchange exchange, int statusCode, String message) throws IOException {
+        sendJson(exchange, statusCode, "{\"message\": \"" + escape(message) + "\"}");
+    }
+
+    public static String escape(String value) {
+        if (value == null) {
+            return "";
+        }
+
+        StringBuilder sb = new StringBuilder(value.length() + 8);
+
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+
+            switch (c) {
+                case '"' -> sb.append("\\\"");
+                case '\\' -> sb.append("\\\\");
+                case '\n' -> sb.append("\\n");
+                case '\r' -> sb.append("\\r");
+                case '\t' -> sb.append("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        sb.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        sb.append(c);
+                    }
+                }
+            }
+        }
+
+        return sb.toString();
+    }
+}
@@ -0,0 +1,100 @@
+package com.projeto.http;
+
+import java.net.URI;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Parâmetros da query string, com conversões que geram mensagens de erro claras.
+ */
+public class QueryParams {
+
+    private final Map<String, String> values = new HashMap<>();
+
+    public QueryParams(URI uri) {
+        String query = uri.getRawQuery();
+
+        if (query == null || query.isEmpty()) {
+            return;
+        }
+
+        for (String pair : query.split("&")) {
+            if (pair.isEmpty()) {
+                continue;
+            }
+
+            int eq = pair.indexOf('=');
+            String key = eq < 0 ? pair : pair.substring(0, eq);
+            String value = eq < 0 ? "" : pair.substring(eq + 1);
+
+            values.put(URLDecoder.decode(key, StandardCharsets.UTF_8),
+                    URLDecoder.decode(value, StandardCharsets.UTF_8));
+        }
+    }
+
+    public String get(String name) {
+        String value = values.get(name);
+        return (value == null || value.isBlank()) ? null : value;
+    }
+
+    public boolean has(String name) {
+        return values.containsKey(name);
+    }
+
+    public int getInt(String name, int defaultValue) {
+        String value = get(name);
+
+        if (value == null) {
+            return defaultValue;
+        }
+
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Parâmetro '" + name + "' deve ser um número inteiro");
+        }
+    }
+
+    public boolean getBoolean(String name, boolean defaultValue) {
+        String value = get(name);
+        return value == null ? defaultValue : Boolean.parseBoolean(value);
+    }
+
+    public LocalDate getDate(String name) {
+        String value = get(name);
+
+        if (value == null) {
+            return null;
+        }
+
+        try {
+            return LocalDate.parse(value);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Parâmetro '" + name + "' deve estar no formato ISO (ex.: 2025-12-01)");
+        }
+    }
+
+    /**
+     * Aceita data-hora ISO (2025-12-01T10:00:00) ou apenas a data (2025-12-01).
+     */
+    public LocalDateTime getDateTime(String name) {
+        String value = get(name);
+
+        if (value == null) {
+            return null;
+        }
+
+        try {
+            return value.length() == 10
+                    ? LocalDate.parse(value).atStartOfDay()
+                    : LocalDateTime.parse(value);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Parâmetro '" + name + "' deve estar no formato ISO (ex.: 2025-12-01T10:00:00)");
+        }
+    }
+}
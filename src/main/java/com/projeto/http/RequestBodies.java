@@ -0,0 +1,125 @@
+package com.projeto.http;
+
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.MalformedJsonException;
+import com.projeto.config.AppConfig;
+import com.sun.net.httpserver.HttpExchange;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Leitura dos corpos de requisição direto do stream, com limite de tamanho.
+ *
+ * O JSON é lido com um {@link JsonReader} sobre o próprio corpo e convertido
+ * no record do pedido pelo {@link JsonDecoder}, sem passar por String nem
+ * por árvore JsonObject. Corpo acima do limite vira 413 (já pelo
+ * Content-Length, quando informado); JSON inválido, campo ausente ou de tipo
+ * errado viram 400 com a posição do problema.
+ */
+public final class RequestBodies {
+
+    public static final long MAX_BODY_BYTES = AppConfig.getLong("http.maxBodyBytes", 64 * 1024);
+
+    @FunctionalInterface
+    public interface JsonDecoder<T> {
+
+        /**
+         * Lê um valor completo; {@link IllegalArgumentException} vira 400 com a mensagem.
+         */
+        T read(JsonReader reader) throws IOException;
+    }
+
+    private RequestBodies() {
+    }
+
+    /**
+     * Corpo da requisição limitado a {@code maxBytes}.
+     */
+    public static InputStream open(HttpExchange exchange, long maxBytes) {
+        String contentLength = exchange.getRequestHeaders().getFirst("Content-Length");
+
+        if (contentLength != null) {
+            try {
+                if (Long.parseLong(contentLength.trim()) > maxBytes) {
+                    throw tooLarge(maxBytes);
+                }
+            } catch (NumberFormatException e) {
+                throw new HttpException(400, "Content-Length inválido");
+            }
+        }
+
+        return new LimitedInputStream(exchange.getRequestBody(), maxBytes);
+    }
+
+    /**
+     * O corpo inteiro, até {@link #MAX_BODY_BYTES}.
+     */
+    public static byte[] readBytes(HttpExchange exchange) throws IOException {
+        try (InputStream in = open(exchange, MAX_BODY_BYTES)) {
+            return in.readAllBytes();
+        }
+    }
+
+    public static <T> T readJson(HttpExchange exchange, JsonDecoder<T> decoder) throws IOException {
+        return readJson(exchange, MAX_BODY_BYTES, false, decoder);
+    }
+
+    /**
+     * Decodifica o corpo com {@code decoder} e exige que nada venha depois do
+     * valor lido. Com {@code lenient}, aceita vários valores seguidos (NDJSON),
+     * e o decoder é quem consome o documento todo.
+     */
+    public static <T> T readJson(HttpExchange exchange, long maxBytes, boolean lenient, JsonDecoder<T> decoder)
+            throws IOException {
+        LimitedInputStream body = (LimitedInputStream) open(exchange, maxBytes);
+
+        try (JsonReader reader = new JsonReader(new InputStreamReader(body, StandardCharsets.UTF_8))) {
+            reader.setLenient(lenient);
+
+            try {
+                T value = decoder.read(reader);
+
+                if (reader.peek() != JsonToken.END_DOCUMENT) {
+                    throw new HttpException(400, "Conteúdo inesperado após o JSON em " + reader.getPath());
+                }
+
+                return value;
+            } catch (EOFException e) {
+                if (body.count() == 0) {
+                    throw new HttpException(400, "Body JSON está vazio");
+                }
+                throw new HttpException(400, "JSON incompleto em " + reader.getPath());
+            } catch (MalformedJsonException | IllegalStateException | NumberFormatException e) {
+                throw new HttpException(400, "Formato JSON inválido em " + reader.getPath() + ": " + describe(e));
+            } catch (IllegalArgumentException e) {
+                throw new HttpException(400, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Motivo curto, sem a posição que o Gson acrescenta (já vai o caminho do campo).
+     */
+    private static String describe(Exception e) {
+        if (e instanceof MalformedJsonException) {
+            return "sintaxe inválida";
+        }
+
+        if (e instanceof NumberFormatException) {
+            return "número inválido";
+        }
+
+        String message = e.getMessage();
+        int position = message != null ? message.indexOf(" at line ") : -1;
+        return position > 0 ? message.substring(0, position) : String.valueOf(message);
+    }
+
+    static HttpException tooLarge(long maxBytes) {
+        return new HttpException(413, "Corpo da requisição maior que o limite de " + maxBytes + " bytes");
+    }
+}
@@ -0,0 +1,66 @@
+package com.projeto.http;
+
+import com.sun.net.httpserver.HttpExchange;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Guarda o status, o tipo e o corpo enviados por {@link HttpResponses#sendText}
+ * numa troca específica, para quem precisa reaproveitar a resposta depois.
+ *
+ * Os atributos do HttpExchange do JDK pertencem ao HttpContext e são
+ * compartilhados entre requisições, por isso a captura fica num mapa
+ * indexado pela própria troca.
+ */
+public final class ResponseCapture {
+
+    private static final Map<HttpExchange, ResponseCapture> ACTIVE = new ConcurrentHashMap<>();
+
+    private volatile int status = -1;
+    private volatile String contentType;
+    private volatile String body;
+
+    private ResponseCapture() {
+    }
+
+    public static ResponseCapture start(HttpExchange exchange) {
+        ResponseCapture capture = new ResponseCapture();
+        ACTIVE.put(exchange, capture);
+        return capture;
+    }
+
+    public static void stop(HttpExchange exchange) {
+        ACTIVE.remove(exchange);
+    }
+
+    static void record(HttpExchange exchange, int status, String contentType, String body) {
+        if (ACTIVE.isEmpty()) {
+            return;
+        }
+
+        ResponseCapture capture = ACTIVE.get(exchange);
+
+        if (capture != null) {
+            capture.contentType = contentType;
+            capture.body = body;
+            capture.status = status;
+        }
+    }
+
+    public boolean isCaptured() {
+        return status != -1;
+    }
+
+    public int status() {
+        return status;
+    }
+
+    public String contentType() {
+        return contentType;
+    }
+
+    public String body() {
+        return body;
+    }
+}
@@ -0,0 +1,324 @@
+package com.projeto.http;
+
+import com.projeto.config.AppConfig;
+import com.sun.net.httpserver.Headers;
+import com.sun.net.httpserver.HttpExchange;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+
+/**
+ * Compressão gzip/deflate das respostas, negociada pelo Accept-Encoding.
+ *
+ * Corpos menores que {@code http.compression.minBytes} saem sem compressão:
+ * o /health e as mensagens de erro não compensam o custo. Cada Deflater
+ * guarda ~256 KB de estado nativo do zlib, então eles ficam num pool junto
+ * com o buffer de saída e são reaproveitados com reset() entre requisições.
+ */
+public final class ResponseCompression {
+
+    private static final boolean ENABLED = AppConfig.getBoolean("http.compression.enabled", true);
+    private static final int MIN_BYTES = AppConfig.getInt("http.compression.minBytes", 1024);
+    private static final int LEVEL = AppConfig.getInt("http.compression.level", 6);
+    private static final int POOL_SIZE = AppConfig.getInt("http.compression.poolSize",
+            Math.max(4, Runtime.getRuntime().availableProcessors() * 2));
+
+    private static final int INITIAL_BUFFER = 16 * 1024;
+    // buffers que cresceram além disso (uma resposta enorme) não voltam ao pool com esse tamanho
+    private static final int MAX_RETAINED_BUFFER = 256 * 1024;
+    private static final int STREAM_BUFFER = 8 * 1024;
+
+    private static final byte[] GZIP_HEADER = {0x1f, (byte) 0x8b, Deflater.DEFLATED, 0, 0, 0, 0, 0, 0, (byte) 0xff};
+
+    private static final LongAdder bytesIn = new LongAdder();
+    private static final LongAdder bytesOut = new LongAdder();
+
+    private enum Encoding {
+        GZIP("gzip", true),
+        DEFLATE("deflate", false);
+
+        final String token;
+        final boolean nowrap;
+        final ArrayBlockingQueue<Compressor> pool = new ArrayBlockingQueue<>(Math.max(1, POOL_SIZE));
+
+        Encoding(String token, boolean nowrap) {
+            this.token = token;
+            this.nowrap = nowrap;
+        }
+
+        Compressor acquire() {
+            Compressor compressor = pool.poll();
+            return compressor != null ? compressor : new Compressor(this);
+        }
+
+        void release(Compressor compressor) {
+            compressor.deflater.reset();
+
+            if (compressor.buffer.length > MAX_RETAINED_BUFFER) {
+                compressor.buffer = new byte[INITIAL_BUFFER];
+            }
+
+            if (!pool.offer(compressor)) {
+                compressor.deflater.end();
+            }
+        }
+    }
+
+    private ResponseCompression() {
+    }
+
+    /**
+     * Envia o corpo comprimido se o cliente aceita e o tamanho passa do mínimo.
+     *
+     * @return {@code false} quando nada foi enviado e a resposta deve sair sem compressão
+     */
+    static boolean trySend(HttpExchange exchange, int statusCode, byte[] body) throws IOException {
+        if (!ENABLED || body.length < MIN_BYTES) {
+            return false;
+        }
+
+        Headers headers = exchange.getResponseHeaders();
+        headers.add("Vary", "Accept-Encoding");
+
+        Encoding encoding = negotiate(exchange);
+
+        if (encoding == null) {
+            return false;
+        }
+
+        Compressor compressor = encoding.acquire();
+
+        try {
+            int length = compressor.compress(body);
+            headers.set("Content-Encoding", encoding.token);
+            exchange.sendResponseHeaders(statusCode, length);
+
+            try (OutputStream os = exchange.getResponseBody()) {
+                os.write(compressor.buffer, 0, length);
+            }
+
+            bytesIn.add(body.length);
+            bytesOut.add(length);
+            return true;
+        } finally {
+            encoding.release(compressor);
+        }
+    }
+
+    /**
+     * Envia os headers de uma resposta em streaming (chunked) e devolve o
+     * corpo, já comprimido se o cliente aceita. Fechar o stream devolve o
+     * Deflater ao pool.
+     */
+    public static OutputStream startStream(HttpExchange exchange, int statusCode) throws IOException {
+        Encoding encoding = ENABLED ? negotiate(exchange) : null;
+
+        if (ENABLED) {
+            exchange.getResponseHeaders().add("Vary", "Accept-Encoding");
+        }
+
+        if (encoding == null) {
+            exchange.sendResponseHeaders(statusCode, 0);
+            return exchange.getResponseBody();
+        }
+
+        exchange.getResponseHeaders().set("Content-Encoding", encoding.token);
+        exchange.sendResponseHeaders(statusCode, 0);
+        return new CompressingStream(exchange.getResponseBody(), encoding.acquire());
+    }
+
+    public static long bytesIn() {
+        return bytesIn.sum();
+    }
+
+    public static long bytesOut() {
+        return bytesOut.sum();
+    }
+
+    /**
+     * gzip tem preferência sobre deflate; {@code q=0} recusa a codificação e
+     * {@code *} vale como gzip.
+     */
+    private static Encoding negotiate(HttpExchange exchange) {
+        String header = exchange.getRequestHeaders().getFirst("Accept-Encoding");
+
+        if (header == null) {
+            return null;
+        }
+
+        boolean gzip = false;
+        boolean deflate = false;
+
+        for (String part : header.split(",")) {
+            String[] tokens = part.split(";");
+            String name = tokens[0].trim().toLowerCase(Locale.ROOT);
+
+            if (!accepted(tokens)) {
+                continue;
+            }
+
+            switch (name) {
+                case "gzip", "x-gzip", "*" -> gzip = true;
+                case "deflate" -> deflate = true;
+                default -> {
+                }
+            }
+        }
+
+        return gzip ? Encoding.GZIP : deflate ? Encoding.DEFLATE : null;
+    }
+
+    private static boolean accepted(String[] tokens) {
+        for (int i = 1; i < tokens.length; i++) {
+            String param = tokens[i].trim();
+
+            if (param.startsWith("q=")) {
+                try {
+                    return Double.parseDouble(param.substring(2)) > 0;
+                } catch (NumberFormatException e) {
+                    return false;
+                }
+            }
+        }
+
+        return true;
+    }
+
+    private static final class Compressor {
+
+        final Encoding encoding;
+        final Deflater deflater;
+        final CRC32 crc = new CRC32();
+        byte[] buffer = new byte[INITIAL_BUFFER];
+
+        Compressor(Encoding encoding) {
+            this.encoding = encoding;
+            this.deflater = new Deflater(LEVEL, encoding.nowrap);
+        }
+
+        /**
+         * Comprime o corpo inteiro no buffer, que cresce se preciso.
+         *
+         * @return bytes válidos no buffer
+         */
+        int compress(byte[] input) {
+            int length = 0;
+
+            if (encoding == Encoding.GZIP) {
+                System.arraycopy(GZIP_HEADER, 0, buffer, 0, GZIP_HEADER.length);
+                length = GZIP_HEADER.length;
+            }
+
+            deflater.setInput(input);
+            deflater.finish();
+
+            while (!deflater.finished()) {
+                if (length == buffer.length) {
+                    buffer = Arrays.copyOf(buffer, buffer.length * 2);
+                }
+
+                length += deflater.deflate(buffer, length, buffer.length - length);
+            }
+
+            if (encoding == Encoding.GZIP) {
+                crc.reset();
+                crc.update(input);
+
+                if (buffer.length - length < 8) {
+                    buffer = Arrays.copyOf(buffer, length + 8);
+                }
+
+                length = writeTrailer(buffer, length, crc.getValue(), input.length);
+            }
+
+            return length;
+        }
+    }
+
+    /**
+     * DeflaterOutputStream sobre um Deflater do pool (close() não chama end()).
+     * No gzip, escreve o cabeçalho antes e o CRC32/tamanho no fim.
+     */
+    private static final class CompressingStream extends DeflaterOutputStream {
+
+        private final Compressor compressor;
+        private final boolean gzip;
+        private long inputBytes;
+        private boolean closed;
+
+        CompressingStream(OutputStream out, Compressor compressor) throws IOException {
+            super(out, compressor.deflater, STREAM_BUFFER);
+            this.compressor = compressor;
+            this.gzip = compressor.encoding == Encoding.GZIP;
+            compressor.crc.reset();
+
+            if (gzip) {
+                out.write(GZIP_HEADER);
+            }
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            super.write(b, off, len);
+
+            if (gzip) {
+                compressor.crc.update(b, off, len);
+            }
+
+            inputBytes += len;
+        }
+
+        @Override
+        public void finish() throws IOException {
+            if (def.finished()) {
+                return;
+            }
+
+            super.finish();
+
+            if (gzip) {
+                byte[] trailer = new byte[8];
+                writeTrailer(trailer, 0, compressor.crc.getValue(), inputBytes);
+                out.write(trailer);
+            }
+
+            bytesIn.add(inputBytes);
+            bytesOut.add(def.getBytesWritten() + (gzip ? GZIP_HEADER.length + 8 : 0));
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (closed) {
+                return;
+            }
+
+            closed = true;
+
+            try {
+                finish();
+                out.close();
+            } finally {
+                compressor.encoding.release(compressor);
+            }
+        }
+    }
+
+    private static int writeTrailer(byte[] target, int offset, long crc, long size) {
+        for (int i = 0; i < 4; i++) {
+            target[offset++] = (byte) (crc >>> (8 * i));
+        }
+
+        for (int i = 0; i < 4; i++) {
+            target[offset++] = (byte) (size >>> (8 * i));
+        }
+
+        return offset;
+    }
+}
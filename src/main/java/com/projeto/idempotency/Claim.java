@@ -0,0 +1,27 @@
+package com.projeto.idempotency;
+
+/**
+ * Resultado de {@link IdempotencyStore#claim}: executar a requisição,
+ * repetir a resposta guardada ou recusar.
+ */
+public record Claim(Outcome outcome, StoredResponse response) {
+
+    public enum Outcome {
+        /** Primeira vez que a chave aparece: quem pediu executa e depois chama complete ou abandon. */
+        EXECUTE,
+        /** Mesma chave e mesmo corpo de uma requisição já concluída. */
+        REPLAY,
+        /** Outra requisição com a mesma chave ainda está em execução. */
+        IN_PROGRESS,
+        /** A chave já foi usada com outro corpo. */
+        MISMATCH
+    }
+
+    static final Claim EXECUTE = new Claim(Outcome.EXECUTE, null);
+    static final Claim IN_PROGRESS = new Claim(Outcome.IN_PROGRESS, null);
+    static final Claim MISMATCH = new Claim(Outcome.MISMATCH, null);
+
+    static Claim replay(StoredResponse response) {
+        return new Claim(Outcome.REPLAY, response);
+    }
+}
@@ -0,0 +1,245 @@
+package com.projeto.idempotency;
+
+import com.projeto.logging.Log;
+import com.projeto.logging.Logger;
+import com.projeto.repository.IdempotencyRepository;
+
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Respostas já enviadas por Idempotency-Key, em memória, com limite de
+ * tamanho (LRU) e validade.
+ *
+ * Como o {@link com.projeto.cache.OrderCache}, é dividido em segmentos com
+ * lock próprio: repetições concorrentes de chaves diferentes não disputam o
+ * mesmo lock, e nenhum lock fica preso durante a execução da requisição ou
+ * uma ida ao banco. Enquanto a primeira requisição de uma chave executa, a
+ * chave fica reservada num mapa à parte, fora do LRU: uma rajada de chaves
+ * novas não a descarta, e a reserva só expira depois de
+ * {@code inProgressTimeoutMillis} (execução abandonada sem {@link #abandon}).
+ *
+ * Com um {@link IdempotencyRepository}, as respostas também vão para o H2 e
+ * uma chave que não está em memória é procurada lá antes de executar.
+ */
+public class IdempotencyStore {
+
+    private static final Logger LOG = Log.getLogger(IdempotencyStore.class);
+
+    private static final int SEGMENTS = 16;
+    private static final int PURGE_EVERY = 1024;
+
+    private final Segment[] segments = new Segment[SEGMENTS];
+    private final long ttlMillis;
+    private final long inProgressTimeoutMillis;
+    private final IdempotencyRepository repository;
+
+    private final LongAdder replays = new LongAdder();
+    private final LongAdder conflicts = new LongAdder();
+    private final AtomicLong saves = new AtomicLong();
+
+    /**
+     * @param maxKeys                 máximo de respostas em memória
+     * @param ttlMillis               validade de cada resposta guardada
+     * @param inProgressTimeoutMillis tempo máximo de uma reserva sem resposta
+     * @param repository              persistência no H2, ou {@code null} para só memória
+     */
+    public IdempotencyStore(int maxKeys, long ttlMillis, long inProgressTimeoutMillis,
+                            IdempotencyRepository repository) {
+        this.ttlMillis = ttlMillis;
+        this.inProgressTimeoutMillis = inProgressTimeoutMillis;
+        this.repository = repository;
+
+        int perSegment = Math.max(1, (maxKeys + SEGMENTS - 1) / SEGMENTS);
+        for (int i = 0; i < SEGMENTS; i++) {
+            segments[i] = new Segment(perSegment);
+        }
+    }
+
+    /**
+     * Reserva a chave para execução ou diz o que fazer com a repetição.
+     * Quem recebe {@link Claim.Outcome#EXECUTE} deve terminar com
+     * {@link #complete} ou {@link #abandon}.
+     */
+    public Claim claim(String key, String fingerprint) throws SQLException {
+        Segment segment = segmentFor(key);
+        Entry existing;
+
+        segment.lock.lock();
+
+        try {
+            long now = System.currentTimeMillis();
+            existing = segment.pending.get(key);
+
+            if (existing != null && now - existing.storedAt() > inProgressTimeoutMillis) {
+                LOG.warn("Reserva de Idempotency-Key expirada sem resposta", "key", key);
+                segment.pending.remove(key);
+                existing = null;
+            }
+
+            if (existing == null) {
+                existing = segment.map.get(key);
+
+                if (existing != null && now - existing.storedAt() > ttlMillis) {
+                    segment.map.remove(key);
+                    existing = null;
+                }
+            }
+
+            if (existing == null) {
+                segment.pending.put(key, new Entry(fingerprint, null, now));
+            }
+        } finally {
+            segment.lock.unlock();
+        }
+
+        if (existing != null) {
+            return resolve(existing.fingerprint(), existing.response(), fingerprint);
+        }
+
+        if (repository == null) {
+            return Claim.EXECUTE;
+        }
+
+        Optional<StoredResponse> persisted;
+
+        try {
+            persisted = repository.find(key, oldestValid());
+        } catch (SQLException | RuntimeException e) {
+            abandon(key);
+            throw e;
+        }
+
+        if (persisted.isEmpty()) {
+            return Claim.EXECUTE;
+        }
+
+        StoredResponse response = persisted.get();
+        put(key, new Entry(response.fingerprint(), response, System.currentTimeMillis()));
+        return resolve(response.fingerprint(), response, fingerprint);
+    }
+
+    /**
+     * Guarda a resposta da execução reservada por {@link #claim}.
+     */
+    public void complete(String key, StoredResponse response) {
+        put(key, new Entry(response.fingerprint(), response, System.currentTimeMillis()));
+
+        if (repository == null) {
+            return;
+        }
+
+        try {
+            repository.save(key, response);
+
+            if (saves.incrementAndGet() % PURGE_EVERY == 0) {
+                repository.deleteExpired(oldestValid());
+            }
+        } catch (SQLException e) {
+            // a resposta já foi enviada; sem a cópia em disco, só o reinício perde a chave
+            LOG.warn("Falha ao gravar Idempotency-Key", "key", key, "error", e.getMessage());
+        }
+    }
+
+    /**
+     * Libera a chave sem guardar resposta (erro na execução): uma nova
+     * tentativa executa de novo.
+     */
+    public void abandon(String key) {
+        Segment segment = segmentFor(key);
+        segment.lock.lock();
+
+        try {
+            segment.pending.remove(key);
+        } finally {
+            segment.lock.unlock();
+        }
+    }
+
+    public long replays() {
+        return replays.sum();
+    }
+
+    public long conflicts() {
+        return conflicts.sum();
+    }
+
+    public int size() {
+        int size = 0;
+
+        for (Segment segment : segments) {
+            segment.lock.lock();
+            try {
+                size += segment.map.size() + segment.pending.size();
+            } finally {
+                segment.lock.unlock();
+            }
+        }
+
+        return size;
+    }
+
+    private Claim resolve(String storedFingerprint, StoredResponse response, String fingerprint) {
+        if (!storedFingerprint.equals(fingerprint)) {
+            conflicts.increment();
+            return Claim.MISMATCH;
+        }
+
+        if (response == null) {
+            conflicts.increment();
+            return Claim.IN_PROGRESS;
+        }
+
+        replays.increment();
+        return Claim.replay(response);
+    }
+
+    private void put(String key, Entry entry) {
+        Segment segment = segmentFor(key);
+        segment.lock.lock();
+
+        try {
+            segment.pending.remove(key);
+            segment.map.put(key, entry);
+        } finally {
+            segment.lock.unlock();
+        }
+    }
+
+    private LocalDateTime oldestValid() {
+        return LocalDateTime.now().minus(Duration.ofMillis(ttlMillis));
+    }
+
+    private Segment segmentFor(String key) {
+        int hash = key.hashCode();
+        hash ^= (hash >>> 16);
+        return segments[hash & (SEGMENTS - 1)];
+    }
+
+    private record Entry(String fingerprint, StoredResponse response, long storedAt) {
+    }
+
+    private static final class Segment {
+
+        private final ReentrantLock lock = new ReentrantLock();
+        private final LinkedHashMap<String, Entry> map;
+        private final Map<String, Entry> pending = new HashMap<>();
+
+        private Segment(int capacity) {
+            this.map = new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                    return size() > capacity;
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package com.projeto.idempotency;
+
+import com.projeto.http.AsyncResponses;
+import com.projeto.http.HttpResponses;
+import com.projeto.http.RequestBodies;
+import com.projeto.http.ResponseCapture;
+import com.projeto.routes.PathParams;
+import com.projeto.routes.AsyncRouteHandler;
+import com.sun.net.httpserver.HttpExchange;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+
+/**
+ * Envolve um POST para aceitar o header Idempotency-Key.
+ *
+ * A primeira requisição com a chave executa normalmente e a resposta
+ * (status e corpo) fica guardada; repetições com o mesmo corpo recebem a
+ * mesma resposta, com {@code Idempotent-Replayed: true}, sem tocar no banco.
+ * Sem o header, nada muda. Respostas 5xx não são guardadas, para que a nova
+ * tentativa execute de novo. A chave só é liberada ou gravada quando o
+ * handler assíncrono termina.
+ */
+public final class IdempotentHandler implements AsyncRouteHandler {
+
+    public static final String HEADER = "Idempotency-Key";
+
+    private static final int MAX_KEY_LENGTH = 255;
+
+    private final AsyncRouteHandler handler;
+    private final IdempotencyStore store;
+
+    public IdempotentHandler(AsyncRouteHandler handler, IdempotencyStore store) {
+        this.handler = handler;
+        this.store = store;
+    }
+
+    @Override
+    public CompletionStage<?> handle(HttpExchange exchange, PathParams params) throws Exception {
+        String key = exchange.getRequestHeaders().getFirst(HEADER);
+
+        if (key == null) {
+            return handler.handle(exchange, params);
+        }
+
+        if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            HttpResponses.sendError(exchange, 400,
+                    "Idempotency-Key deve ter de 1 a " + MAX_KEY_LENGTH + " caracteres");
+            return AsyncResponses.done();
+        }
+
+        // o corpo é lido aqui para a impressão digital e devolvido ao handler
+        byte[] body = RequestBodies.readBytes(exchange);
+        exchange.setStreams(new ByteArrayInputStream(body), null);
+
+        String path = exchange.getRequestURI().getPath();
+        String scopedKey = path + " " + key;
+        String fingerprint = fingerprint(exchange.getRequestMethod(), path, body);
+
+        Claim claim = store.claim(scopedKey, fingerprint);
+
+        switch (claim.outcome()) {
+            case REPLAY -> replay(exchange, claim.response());
+            case IN_PROGRESS -> {
+                exchange.getResponseHeaders().set("Retry-After", "1");
+                HttpResponses.sendError(exchange, 409, "Requisição com esta Idempotency-Key ainda em processamento");
+            }
+            case MISMATCH -> HttpResponses.sendError(exchange, 422,
+                    "Idempotency-Key já usada com outro corpo de requisição");
+            case EXECUTE -> {
+                return execute(exchange, params, scopedKey, fingerprint);
+            }
+        }
+
+        return AsyncResponses.done();
+    }
+
+    private CompletionStage<?> execute(HttpExchange exchange, PathParams params, String scopedKey, String fingerprint) {
+        ResponseCapture capture = ResponseCapture.start(exchange);
+        CompletionStage<?> pending;
+
+        try {
+            pending = handler.handle(exchange, params);
+        } catch (Exception e) {
+            pending = CompletableFuture.failedFuture(e);
+        }
+
+        return pending.whenComplete((result, error) -> {
+            ResponseCapture.stop(exchange);
+
+            if (error == null && capture.isCaptured() && capture.status() < 500) {
+                store.complete(scopedKey,
+                        new StoredResponse(fingerprint, capture.status(), capture.contentType(), capture.body()));
+            } else {
+                store.abandon(scopedKey);
+            }
+        });
+    }
+
+    private void replay(HttpExchange exchange, StoredResponse response) throws IOException {
+        exchange.getResponseHeaders().set("Idempotent-Replayed", "true");
+        HttpResponses.sendText(exchange, response.status(), response.contentType(), response.body());
+    }
+
+    private static String fingerprint(String method, String path, byte[] body) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update((method + " " + path + "\n").getBytes(StandardCharsets.UTF_8));
+            digest.update(body);
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 indisponível", e);
+        }
+    }
+}
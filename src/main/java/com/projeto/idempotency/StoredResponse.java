@@ -0,0 +1,8 @@
+package com.projeto.idempotency;
+
+/**
+ * Resposta gravada para uma Idempotency-Key, junto com a impressão digital
+ * da requisição que a gerou.
+ */
+public record StoredResponse(String fingerprint, int status, String contentType, String body) {
+}
@@ -0,0 +1,182 @@
+package com.projeto.logging;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Thread única que esvazia o {@link LogRingBuffer}, formata e escreve.
+ * Quem registra a mensagem só faz o offer na fila; a escrita no stdout
+ * (e o lock dele) fica toda nesta thread.
+ */
+final class AsyncLogWriter implements Runnable {
+
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(50);
+
+    private final LogRingBuffer buffer;
+    private final Writer out;
+    private final LongAdder dropped = new LongAdder();
+    private final Thread thread;
+
+    private volatile boolean running = true;
+    private volatile boolean sleeping;
+    private long droppedReported;
+
+    AsyncLogWriter(LogRingBuffer buffer, Writer out) {
+        this.buffer = buffer;
+        this.out = out;
+        this.thread = new Thread(this, "log-writer");
+        this.thread.setDaemon(true);
+    }
+
+    void start() {
+        thread.start();
+    }
+
+    void enqueue(LogEvent event) {
+        if (!buffer.offer(event)) {
+            dropped.increment();
+            return;
+        }
+
+        if (sleeping) {
+            LockSupport.unpark(thread);
+        }
+    }
+
+    long dropped() {
+        return dropped.sum();
+    }
+
+    /**
+     * Para a thread depois de escrever o que ainda estiver na fila.
+     */
+    void shutdown(long timeoutMillis) {
+        running = false;
+        LockSupport.unpark(thread);
+
+        try {
+            thread.join(timeoutMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public void run() {
+        StringBuilder line = new StringBuilder(256);
+
+        while (true) {
+            boolean wrote = drain(line);
+
+            if (!running) {
+                drain(line);
+                flush();
+                return;
+            }
+
+            if (!wrote) {
+                flush();
+                sleeping = true;
+                if (buffer.isEmpty()) {
+                    LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+                }
+                sleeping = false;
+            }
+        }
+    }
+
+    private boolean drain(StringBuilder line) {
+        boolean wrote = false;
+        LogEvent event;
+
+        while ((event = buffer.poll()) != null) {
+            write(line, event);
+            wrote = true;
+        }
+
+        long droppedNow = dropped.sum();
+        if (droppedNow != droppedReported) {
+            write(line, new LogEvent(System.currentTimeMillis(), LogLevel.WARN, "Log",
+                    "Mensagens de log descartadas (buffer cheio)",
+                    new Object[]{"dropped", droppedNow - droppedReported}, null));
+            droppedReported = droppedNow;
+            wrote = true;
+        }
+
+        return wrote;
+    }
+
+    private void write(StringBuilder line, LogEvent event) {
+        line.setLength(0);
+        line.append("ts=").append(Instant.ofEpochMilli(event.timestampMillis()))
+                .append(" level=").append(event.level())
+                .append(" logger=").append(event.logger())
+                .append(" msg=");
+        appendValue(line, event.message());
+
+        Object[] fields = event.fields();
+        for (int i = 0; fields != null && i + 1 < fields.length; i += 2) {
+            line.append(' ').append(fields[i]).append('=');
+            appendValue(line, fields[i + 1]);
+        }
+
+        if (event.error() != null) {
+            line.append(" error=");
+            appendValue(line, event.error().toString());
+            StringWriter trace = new StringWriter();
+            event.error().printStackTrace(new PrintWriter(trace));
+            line.append('\n').append(trace);
+        } else {
+            line.append('\n');
+        }
+
+        try {
+            out.append(line);
+        } catch (IOException e) {
+            dropped.increment();
+        }
+    }
+
+    private void flush() {
+        try {
+            out.flush();
+        } catch (IOException ignored) {
+            // sem onde registrar a falha do próprio log
+        }
+    }
+
+    private static void appendValue(StringBuilder line, Object value) {
+        String text = String.valueOf(value);
+        boolean quote = text.isEmpty();
+
+        for (int i = 0; i < text.length() && !quote; i++) {
+            char c = text.charAt(i);
+            quote = c <= ' ' || c == '"' || c == '=' || c == '\\';
+        }
+
+        if (!quote) {
+            line.append(text);
+            return;
+        }
+
+        line.append('"');
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            switch (c) {
+                case '"' -> line.append("\\\"");
+                case '\\' -> line.append("\\\\");
+                case '\n' -> line.append("\\n");
+                case '\r' -> line.append("\\r");
+                case '\t' -> line.append("\\t");
+                default -> line.append(c);
+            }
+        }
+        line.append('"');
+    }
+}
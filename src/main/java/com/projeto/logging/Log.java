@@ -0,0 +1,66 @@
+package com.projeto.logging;
+
+import com.projeto.config.AppConfig;
+
+import java.io.BufferedWriter;
+import java.io.FileOutputStream;
+import java.io.FileDescriptor;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Configuração global do log assíncrono.
+ *
+ * <ul>
+ *     <li>{@code log.level}: DEBUG, INFO (padrão), WARN, ERROR ou OFF;</li>
+ *     <li>{@code log.bufferSize}: capacidade da fila (potência de 2, padrão 8192);</li>
+ *     <li>{@code log.requestBodies}: registra os corpos JSON recebidos (padrão false).</li>
+ * </ul>
+ */
+public final class Log {
+
+    private static final LogLevel LEVEL = LogLevel.parse(AppConfig.get("log.level", "INFO"));
+    private static final boolean REQUEST_BODIES = AppConfig.getBoolean("log.requestBodies", false);
+    private static final AsyncLogWriter WRITER;
+
+    static {
+        WRITER = new AsyncLogWriter(
+                new LogRingBuffer(AppConfig.getInt("log.bufferSize", 8192)),
+                new BufferedWriter(new OutputStreamWriter(
+                        new FileOutputStream(FileDescriptor.out), StandardCharsets.UTF_8), 64 * 1024));
+        WRITER.start();
+    }
+
+    private Log() {
+    }
+
+    public static Logger getLogger(Class<?> type) {
+        return new Logger(type.getSimpleName());
+    }
+
+    public static boolean isEnabled(LogLevel level) {
+        return level.compareTo(LEVEL) >= 0 && level != LogLevel.OFF;
+    }
+
+    public static boolean logRequestBodies() {
+        return REQUEST_BODIES;
+    }
+
+    /**
+     * Mensagens descartadas por fila cheia desde o início.
+     */
+    public static long dropped() {
+        return WRITER.dropped();
+    }
+
+    /**
+     * Escreve o que ainda estiver na fila. Chamado no encerramento.
+     */
+    public static void shutdown() {
+        WRITER.shutdown(2_000);
+    }
+
+    static void enqueue(LogEvent event) {
+        WRITER.enqueue(event);
+    }
+}
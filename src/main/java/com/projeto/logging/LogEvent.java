@@ -0,0 +1,8 @@
+package com.projeto.logging;
+
+/**
+ * Uma mensagem enfileirada. A formatação só acontece na thread de escrita.
+ */
+record LogEvent(long timestampMillis, LogLevel level, String logger, String message,
+                Object[] fields, Throwable error) {
+}
@@ -0,0 +1,20 @@
+package com.projeto.logging;
+
+import java.util.Locale;
+
+public enum LogLevel {
+
+    DEBUG,
+    INFO,
+    WARN,
+    ERROR,
+    OFF;
+
+    public static LogLevel parse(String value) {
+        try {
+            return valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Nível de log inválido: " + value + " (use DEBUG, INFO, WARN, ERROR ou OFF)");
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.projeto.logging;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Fila circular limitada, sem locks, com vários produtores e um único
+ * consumidor (algoritmo de D. Vyukov: cada posição tem um número de
+ * sequência que diz se ela está livre ou publicada).
+ *
+ * {@link #offer} nunca bloqueia: com a fila cheia a mensagem é recusada e
+ * quem chamou segue em frente.
+ */
+final class LogRingBuffer {
+
+    private final int mask;
+    private final LogEvent[] slots;
+    private final AtomicLongArray sequences;
+    private final AtomicLong tail = new AtomicLong();
+    private long head;
+
+    LogRingBuffer(int capacity) {
+        if (capacity < 2 || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("Capacidade do buffer de log deve ser potência de 2: " + capacity);
+        }
+
+        this.mask = capacity - 1;
+        this.slots = new LogEvent[capacity];
+        this.sequences = new AtomicLongArray(capacity);
+
+        for (int i = 0; i < capacity; i++) {
+            sequences.set(i, i);
+        }
+    }
+
+    boolean offer(LogEvent event) {
+        while (true) {
+            long position = tail.get();
+            int index = (int) position & mask;
+            long diff = sequences.get(index) - position;
+
+            if (diff == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    slots[index] = event;
+                    sequences.set(index, position + 1);
+                    return true;
+                }
+            } else if (diff < 0) {
+                return false;
+            }
+        }
+    }
+
+    /**
+     * Só a thread consumidora pode chamar.
+     */
+    boolean isEmpty() {
+        return sequences.get((int) head & mask) != head + 1;
+    }
+
+    /**
+     * Só a thread consumidora pode chamar.
+     *
+     * @return a próxima mensagem, ou null se não há nenhuma publicada
+     */
+    LogEvent poll() {
+        int index = (int) head & mask;
+
+        if (sequences.get(index) != head + 1) {
+            return null;
+        }
+
+        LogEvent event = slots[index];
+        slots[index] = null;
+        sequences.lazySet(index, head + mask + 1);
+        head++;
+        return event;
+    }
+}
@@ -0,0 +1,44 @@
+package com.projeto.logging;
+
+/**
+ * Logger de um componente. As mensagens saem em formato chave=valor, por exemplo:
+ * <pre>
+ * ts=2025-12-13T10:15:30.123Z level=INFO logger=OrderRepository msg="Pedido criado" orderId=42
+ * </pre>
+ * {@code fields} são pares chave, valor. Os valores são convertidos em texto
+ * na thread de escrita, então devem ser imutáveis (números, strings, enums).
+ */
+public final class Logger {
+
+    private final String name;
+
+    Logger(String name) {
+        this.name = name;
+    }
+
+    public boolean isEnabled(LogLevel level) {
+        return Log.isEnabled(level);
+    }
+
+    public void debug(String message, Object... fields) {
+        log(LogLevel.DEBUG, message, null, fields);
+    }
+
+    public void info(String message, Object... fields) {
+        log(LogLevel.INFO, message, null, fields);
+    }
+
+    public void warn(String message, Object... fields) {
+        log(LogLevel.WARN, message, null, fields);
+    }
+
+    public void error(String message, Throwable error, Object... fields) {
+        log(LogLevel.ERROR, message, error, fields);
+    }
+
+    private void log(LogLevel level, String message, Throwable error, Object[] fields) {
+        if (Log.isEnabled(level)) {
+            Log.enqueue(new LogEvent(System.currentTimeMillis(), level, name, message, fields, error));
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package com.projeto.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Histograma de latência sem locks, no estilo HdrHistogram.
+ *
+ * Os valores são gravados em microssegundos em buckets log-lineares: cada
+ * potência de dois é dividida em {@value #SUB_BUCKETS} faixas, então o erro
+ * relativo de qualquer percentil fica abaixo de ~3%, com memória fixa
+ * (~8 KB) independente da quantidade de amostras. Gravar é um incremento
+ * atômico; os percentis são calculados só na leitura.
+ */
+public final class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 5;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    /** Maior valor distinguível: 2^36 µs (~19 h); acima disso vai para o último bucket. */
+    private static final int MAX_MAGNITUDE = 36;
+    private static final int BUCKET_COUNT = (MAX_MAGNITUDE - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + SUB_BUCKETS;
+
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKET_COUNT);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder sumMicros = new LongAdder();
+    private final AtomicLong maxMicros = new AtomicLong();
+
+    public void recordNanos(long nanos) {
+        recordMicros(Math.max(0, nanos / 1_000), 1);
+    }
+
+    private void recordMicros(long micros, long times) {
+        buckets.getAndAdd(indexOf(micros), times);
+        count.add(times);
+        sumMicros.add(micros * times);
+
+        long max = maxMicros.get();
+        while (micros > max && !maxMicros.compareAndSet(max, micros)) {
+            max = maxMicros.get();
+        }
+    }
+
+    /**
+     * Atalho para {@code recordNanos(System.nanoTime() - startNanos)}.
+     */
+    public void recordSince(long startNanos) {
+        recordNanos(System.nanoTime() - startNanos);
+    }
+
+    /**
+     * Cópia corrigida para omissão coordenada, como o
+     * copyCorrectedForCoordinatedOmission do HdrHistogram: cada amostra
+     * maior que o intervalo esperado entre envios ganha as amostras que um
+     * cliente em laço fechado deixou de enviar enquanto esperava
+     * (valor − intervalo, valor − 2×intervalo, ...).
+     */
+    public LatencyHistogram copyCorrectedForCoordinatedOmission(long expectedIntervalMicros) {
+        LatencyHistogram copy = new LatencyHistogram();
+
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            long times = buckets.get(i);
+
+            if (times == 0) {
+                continue;
+            }
+
+            long value = Math.min(highestEquivalent(i), maxMicros.get());
+            copy.recordMicros(value, times);
+
+            if (expectedIntervalMicros > 0) {
+                for (long missing = value - expectedIntervalMicros; missing >= expectedIntervalMicros;
+                     missing -= expectedIntervalMicros) {
+                    copy.recordMicros(missing, times);
+                }
+            }
+        }
+
+        return copy;
+    }
+
+    public long count() {
+        return count.sum();
+    }
+
+    public long sumMicros() {
+        return sumMicros.sum();
+    }
+
+    public long maxMicros() {
+        return maxMicros.get();
+    }
+
+    /**
+     * Percentis pedidos (0 < q ≤ 1), em microssegundos, numa única passada.
+     * Cada valor é o maior equivalente do bucket, como no HdrHistogram.
+     */
+    public long[] percentilesMicros(double... quantiles) {
+        long[] snapshot = new long[BUCKET_COUNT];
+        long total = 0;
+
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            snapshot[i] = buckets.get(i);
+            total += snapshot[i];
+        }
+
+        long[] result = new long[quantiles.length];
+
+        if (total == 0) {
+            return result;
+        }
+
+        long seen = 0;
+        int q = 0;
+
+        for (int i = 0; i < BUCKET_COUNT && q < quantiles.length; i++) {
+            seen += snapshot[i];
+
+            while (q < quantiles.length && seen >= (long) Math.ceil(quantiles[q] * total)) {
+                result[q++] = Math.min(highestEquivalent(i), maxMicros.get());
+            }
+        }
+
+        return result;
+    }
+
+    static int indexOf(long micros) {
+        if (micros < 2 * SUB_BUCKETS) {
+            return (int) micros;
+        }
+
+        int magnitude = 63 - Long.numberOfLeadingZeros(micros);
+
+        if (magnitude > MAX_MAGNITUDE) {
+            return BUCKET_COUNT - 1;
+        }
+
+        int shift = magnitude - SUB_BUCKET_BITS;
+        return (shift + 1) * SUB_BUCKETS + (int) ((micros >>> shift) - SUB_BUCKETS);
+    }
+
+    static long highestEquivalent(int index) {
+        if (index < 2 * SUB_BUCKETS) {
+            return index;
+        }
+
+        int shift = index / SUB_BUCKETS - 1;
+        long subBucket = index % SUB_BUCKETS + SUB_BUCKETS;
+        return ((subBucket + 1) << shift) - 1;
+    }
+}
@@ -0,0 +1,71 @@
+package com.projeto.metrics;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Registro global das métricas da aplicação.
+ *
+ * Rotas e métodos de repositório pegam seu histograma uma única vez (na
+ * montagem do Router ou num campo static final), então o caminho quente só
+ * faz incrementos atômicos, sem busca em mapa nem lock. Montar o Router de
+ * novo na mesma JVM (benchmarks, teste de carga) reaproveita as métricas de
+ * cada rota, sem séries duplicadas no /metrics.
+ */
+public final class Metrics {
+
+    private static final ConcurrentHashMap<String, RouteMetrics> ROUTES = new ConcurrentHashMap<>();
+    private static final ConcurrentHashMap<String, LatencyHistogram> JDBC = new ConcurrentHashMap<>();
+    private static final LongAdder IN_FLIGHT = new LongAdder();
+    private static final RouteMetrics UNMATCHED = route("ANY", "unmatched");
+
+    private Metrics() {
+    }
+
+    public static RouteMetrics route(String method, String route) {
+        return ROUTES.computeIfAbsent(method + " " + route, k -> new RouteMetrics(method, route));
+    }
+
+    /**
+     * Requisições que não casaram com nenhuma rota (404) ou método (405).
+     */
+    public static RouteMetrics unmatched() {
+        return UNMATCHED;
+    }
+
+    /**
+     * Histograma das chamadas JDBC de um método de repositório,
+     * por exemplo {@code "OrderRepository.findById"}.
+     */
+    public static LatencyHistogram jdbc(String repositoryMethod) {
+        return JDBC.computeIfAbsent(repositoryMethod, k -> new LatencyHistogram());
+    }
+
+    public static void requestStarted() {
+        IN_FLIGHT.increment();
+    }
+
+    public static void requestFinished() {
+        IN_FLIGHT.decrement();
+    }
+
+    public static long inFlight() {
+        return IN_FLIGHT.sum();
+    }
+
+    /**
+     * Ordenadas por rota e método, para o /metrics sair sempre na mesma ordem.
+     */
+    static List<RouteMetrics> routes() {
+        List<RouteMetrics> routes = new ArrayList<>(ROUTES.values());
+        routes.sort(Comparator.comparing(RouteMetrics::route).thenComparing(RouteMetrics::method));
+        return routes;
+    }
+
+    static ConcurrentHashMap<String, LatencyHistogram> jdbcTimers() {
+        return JDBC;
+    }
+}
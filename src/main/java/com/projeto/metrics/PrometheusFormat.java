@@ -0,0 +1,224 @@
+package com.projeto.metrics;
+
+import com.projeto.cache.CacheStats;
+import com.projeto.database.ExecutorStats;
+import com.projeto.database.PoolStats;
+import com.projeto.http.ResponseCompression;
+import com.projeto.logging.Log;
+import com.projeto.server.ServerExecutor;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryUsage;
+import java.lang.management.ThreadMXBean;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Gera o texto do GET /metrics no formato de exposição do Prometheus (0.0.4).
+ * Latências saem como summary (quantis 0.5, 0.99 e 0.999, em segundos),
+ * acumuladas desde o início do processo.
+ */
+public final class PrometheusFormat {
+
+    public static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+
+    private static final double[] QUANTILES = {0.5, 0.99, 0.999};
+    private static final String[] QUANTILE_LABELS = {"0.5", "0.99", "0.999"};
+    private static final String[] STATUS_CLASSES = {"unknown", "1xx", "2xx", "3xx", "4xx", "5xx"};
+
+    private PrometheusFormat() {
+    }
+
+    /**
+     * @param store contadores do MVStore ({@code DatabaseConnection.getStoreCounters()}),
+     *              ou {@code null} se não foi possível lê-los
+     */
+    public static String render(ServerExecutor executor, PoolStats pool, ExecutorStats dbExecutor, CacheStats cache,
+                                Map<String, String> store) {
+        StringBuilder out = new StringBuilder(8 * 1024);
+
+        writeHttp(out, executor);
+        writeJdbc(out);
+
+        if (pool != null) {
+            writePool(out, pool);
+        }
+
+        if (dbExecutor != null) {
+            writeDbExecutor(out, dbExecutor);
+        }
+
+        if (cache != null) {
+            writeCache(out, cache);
+        }
+
+        if (store != null && !store.isEmpty()) {
+            writeStore(out, store);
+        }
+
+        header(out, "log_dropped_total", "counter", "Mensagens de log descartadas com a fila cheia");
+        sample(out, "log_dropped_total", null, Log.dropped());
+
+        writeJvm(out);
+        return out.toString();
+    }
+
+    private static void writeHttp(StringBuilder out, ServerExecutor executor) {
+        List<RouteMetrics> routes = Metrics.routes();
+
+        header(out, "http_requests_total", "counter", "Requisições HTTP por rota e classe de status");
+        for (RouteMetrics route : routes) {
+            for (int statusClass = 0; statusClass < STATUS_CLASSES.length; statusClass++) {
+                long count = route.count(statusClass);
+                if (count > 0) {
+                    out.append("http_requests_total{method=\"").append(route.method())
+                            .append("\",route=\"").append(route.route())
+                            .append("\",status=\"").append(STATUS_CLASSES[statusClass]).append("\"} ")
+                            .append(count).append('\n');
+                }
+            }
+        }
+
+        header(out, "http_request_duration_seconds", "summary", "Latência das requisições HTTP por rota");
+        for (RouteMetrics route : routes) {
+            String labels = "method=\"" + route.method() + "\",route=\"" + route.route() + "\"";
+            writeSummary(out, "http_request_duration_seconds", labels, route.latency());
+        }
+
+        header(out, "http_compression_input_bytes_total", "counter", "Bytes de resposta antes da compressão");
+        sample(out, "http_compression_input_bytes_total", null, ResponseCompression.bytesIn());
+
+        header(out, "http_compression_output_bytes_total", "counter", "Bytes de resposta enviados comprimidos");
+        sample(out, "http_compression_output_bytes_total", null, ResponseCompression.bytesOut());
+
+        header(out, "http_requests_in_flight", "gauge", "Requisições em atendimento");
+        sample(out, "http_requests_in_flight", null, Metrics.inFlight());
+
+        if (executor != null) {
+            header(out, "http_requests_rejected_total", "counter", "Requisições recusadas com 503 por sobrecarga");
+            sample(out, "http_requests_rejected_total", null, executor.rejected());
+        }
+    }
+
+    private static void writeJdbc(StringBuilder out) {
+        header(out, "jdbc_call_duration_seconds", "summary", "Duração das chamadas JDBC por método de repositório");
+
+        for (Map.Entry<String, LatencyHistogram> entry : new TreeMap<>(Metrics.jdbcTimers()).entrySet()) {
+            writeSummary(out, "jdbc_call_duration_seconds", "method=\"" + entry.getKey() + "\"", entry.getValue());
+        }
+    }
+
+    private static void writeSummary(StringBuilder out, String name, String labels, LatencyHistogram histogram) {
+        long count = histogram.count();
+
+        if (count == 0) {
+            return;
+        }
+
+        long[] values = histogram.percentilesMicros(QUANTILES);
+
+        for (int i = 0; i < QUANTILES.length; i++) {
+            out.append(name).append('{').append(labels)
+                    .append(",quantile=\"").append(QUANTILE_LABELS[i]).append("\"} ")
+                    .append(seconds(values[i])).append('\n');
+        }
+
+        out.append(name).append("_sum{").append(labels).append("} ").append(seconds(histogram.sumMicros())).append('\n');
+        out.append(name).append("_count{").append(labels).append("} ").append(count).append('\n');
+    }
+
+    private static void writePool(StringBuilder out, PoolStats pool) {
+        header(out, "db_pool_connections", "gauge", "Conexões do pool por estado");
+        sample(out, "db_pool_connections", "state=\"active\"", pool.active());
+        sample(out, "db_pool_connections", "state=\"idle\"", pool.idle());
+        sample(out, "db_pool_connections", "state=\"max\"", pool.maxSize());
+
+        header(out, "db_pool_waiting", "gauge", "Threads aguardando conexão");
+        sample(out, "db_pool_waiting", null, pool.waiting());
+
+        header(out, "db_pool_timeouts_total", "counter", "Esperas por conexão que estouraram o tempo");
+        sample(out, "db_pool_timeouts_total", null, pool.timeouts());
+    }
+
+    private static void writeDbExecutor(StringBuilder out, ExecutorStats stats) {
+        header(out, "db_executor_threads", "gauge", "Threads do executor de banco por estado");
+        sample(out, "db_executor_threads", "state=\"active\"", stats.active());
+        sample(out, "db_executor_threads", "state=\"max\"", stats.threads());
+
+        header(out, "db_executor_queued", "gauge", "Tarefas JDBC aguardando thread");
+        sample(out, "db_executor_queued", null, stats.queued());
+
+        header(out, "db_executor_rejected_total", "counter", "Tarefas JDBC recusadas com a fila cheia");
+        sample(out, "db_executor_rejected_total", null, stats.rejected());
+    }
+
+    private static void writeCache(StringBuilder out, CacheStats cache) {
+        header(out, "order_cache_requests_total", "counter", "Consultas ao cache de pedidos");
+        sample(out, "order_cache_requests_total", "result=\"hit\"", cache.hits());
+        sample(out, "order_cache_requests_total", "result=\"miss\"", cache.misses());
+
+        header(out, "order_cache_size", "gauge", "Pedidos no cache");
+        sample(out, "order_cache_size", null, cache.size());
+    }
+
+    private static void writeStore(StringBuilder out, Map<String, String> store) {
+        header(out, "db_store_info", "gauge", "Contadores de E/S e de cache do MVStore do H2 (INFORMATION_SCHEMA.SETTINGS)");
+
+        for (Map.Entry<String, String> entry : store.entrySet()) {
+            try {
+                sample(out, "db_store_info", "key=\"" + entry.getKey() + "\"", Long.parseLong(entry.getValue()));
+            } catch (NumberFormatException e) {
+                // valor não numérico: fica de fora
+            }
+        }
+    }
+
+    private static void writeJvm(StringBuilder out) {
+        MemoryUsage heap = ManagementFactory.getMemoryMXBean().getHeapMemoryUsage();
+
+        header(out, "jvm_memory_heap_bytes", "gauge", "Memória heap da JVM");
+        sample(out, "jvm_memory_heap_bytes", "area=\"used\"", heap.getUsed());
+        sample(out, "jvm_memory_heap_bytes", "area=\"committed\"", heap.getCommitted());
+        sample(out, "jvm_memory_heap_bytes", "area=\"max\"", heap.getMax());
+
+        header(out, "jvm_gc_collections_total", "counter", "Coletas de lixo por coletor");
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            sample(out, "jvm_gc_collections_total", "gc=\"" + gc.getName() + "\"", gc.getCollectionCount());
+        }
+
+        header(out, "jvm_gc_collection_seconds_total", "counter", "Tempo gasto em coleta de lixo por coletor");
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            out.append("jvm_gc_collection_seconds_total{gc=\"").append(gc.getName()).append("\"} ")
+                    .append(seconds(gc.getCollectionTime() * 1_000)).append('\n');
+        }
+
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        header(out, "jvm_threads", "gauge", "Threads de plataforma da JVM");
+        sample(out, "jvm_threads", "state=\"live\"", threads.getThreadCount());
+        sample(out, "jvm_threads", "state=\"peak\"", threads.getPeakThreadCount());
+
+        header(out, "process_uptime_seconds", "gauge", "Tempo desde o início da JVM");
+        out.append("process_uptime_seconds ")
+                .append(seconds(ManagementFactory.getRuntimeMXBean().getUptime() * 1_000)).append('\n');
+    }
+
+    private static void header(StringBuilder out, String name, String type, String help) {
+        out.append("# HELP ").append(name).append(' ').append(help).append('\n');
+        out.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+    }
+
+    private static void sample(StringBuilder out, String name, String labels, long value) {
+        out.append(name);
+        if (labels != null) {
+            out.append('{').append(labels).append('}');
+        }
+        out.append(' ').append(value).append('\n');
+    }
+
+    private static String seconds(long micros) {
+        return String.format(Locale.ROOT, "%.6f", micros / 1_000_000.0);
+    }
+}
@@ -0,0 +1,48 @@
+package com.projeto.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Contagem por classe de status (1xx..5xx) e latência de uma rota.
+ */
+public final class RouteMetrics {
+
+    private final String method;
+    private final String route;
+    private final LongAdder[] byStatusClass = new LongAdder[6];
+    private final LatencyHistogram latency = new LatencyHistogram();
+
+    RouteMetrics(String method, String route) {
+        this.method = method;
+        this.route = route;
+
+        for (int i = 0; i < byStatusClass.length; i++) {
+            byStatusClass[i] = new LongAdder();
+        }
+    }
+
+    public void record(int status, long nanos) {
+        int statusClass = status / 100;
+        byStatusClass[statusClass >= 1 && statusClass <= 5 ? statusClass : 0].increment();
+        latency.recordNanos(nanos);
+    }
+
+    public String method() {
+        return method;
+    }
+
+    public String route() {
+        return route;
+    }
+
+    /**
+     * @param statusClass 1 a 5 (0 = status desconhecido)
+     */
+    public long count(int statusClass) {
+        return byStatusClass[statusClass].sum();
+    }
+
+    public LatencyHistogram latency() {
+        return latency;
+    }
+}
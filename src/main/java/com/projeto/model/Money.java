@@ -0,0 +1,42 @@
+package com.projeto.model;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Valores monetários são guardados como long em centavos: somas exatas,
+ * sem arredondamento de ponto flutuante e sem boxing.
+ */
+public final class Money {
+
+    private Money() {
+    }
+
+    /**
+     * Converte um valor decimal ("19.9", "19.90") para centavos.
+     * Mais de duas casas decimais é erro, não arredondamento silencioso.
+     */
+    public static long parse(String value) {
+        try {
+            return toCents(new BigDecimal(value.trim()));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Valor monetário inválido: " + value);
+        }
+    }
+
+    public static long toCents(BigDecimal value) {
+        try {
+            return value.setScale(2, RoundingMode.UNNECESSARY).unscaledValue().longValueExact();
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException("Valor monetário deve ter no máximo 2 casas decimais: " + value.toPlainString());
+        }
+    }
+
+    public static long multiply(long cents, int quantity) {
+        return Math.multiplyExact(cents, quantity);
+    }
+
+    public static String format(long cents) {
+        return BigDecimal.valueOf(cents, 2).toPlainString();
+    }
+}
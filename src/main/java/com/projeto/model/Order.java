@@ -1,20 +1,27 @@
 package com.projeto.model;
 
+import com.google.gson.annotations.JsonAdapter;
+import com.google.gson.annotations.SerializedName;
+import com.projeto.config.MoneyAdapter;
+
 import java.util.ArrayList;
 import java.util.List;
 
 public class Order extends BaseEntity {
     
     private String customerName;
-    private Double totalValue;
-    private String status;
+    @SerializedName("totalValue")
+    @JsonAdapter(MoneyAdapter.class)
+    private long totalCents;
+    private OrderStatus status;
     private List<OrderItem> items;
+    // contador de alterações no banco; vai no ETag, não no JSON
+    private transient long version;
     
     public Order() {
         super();
         this.items = new ArrayList<>();
-        this.totalValue = 0.0;
-        this.status = "PENDING";
+        this.status = OrderStatus.PENDING;
     }
     
     public Order(String customerName) {
@@ -30,22 +37,30 @@ public class Order extends BaseEntity {
         this.customerName = customerName;
     }
     
-    public Double getTotalValue() {
-        return totalValue;
+    public long getTotalCents() {
+        return totalCents;
     }
     
-    public void setTotalValue(Double totalValue) {
-        this.totalValue = totalValue;
+    public void setTotalCents(long totalCents) {
+        this.totalCents = totalCents;
     }
     
-    public String getStatus() {
+    public OrderStatus getStatus() {
         return status;
     }
     
-    public void setStatus(String status) {
+    public void setStatus(OrderStatus status) {
         this.status = status;
     }
     
+    public long getVersion() {
+        return version;
+    }
+    
+    public void setVersion(long version) {
+        this.version = version;
+    }
+    
     public List<OrderItem> getItems() {
         return items;
     }
@@ -65,9 +80,11 @@ public class Order extends BaseEntity {
     }
     
     public void calculateTotal() {
-        this.totalValue = items.stream()
-                .mapToDouble(item -> item.getUnitPrice() * item.getQuantity())
-                .sum();
+        long total = 0;
+        for (int i = 0; i < items.size(); i++) {
+            total = Math.addExact(total, items.get(i).getSubtotalCents());
+        }
+        this.totalCents = total;
     }
     
     @Override
@@ -75,8 +92,8 @@ public class Order extends BaseEntity {
         return "Order{" +
                 "id=" + id +
                 ", customerName='" + customerName + '\'' +
-                ", totalValue=" + totalValue +
-                ", status='" + status + '\'' +
+                ", totalValue=" + Money.format(totalCents) +
+                ", status=" + status +
                 ", itemsCount=" + items.size() +
                 ", createdAt=" + createdAt +
                 '}';
@@ -1,22 +1,28 @@
 package com.projeto.model;
 
+import com.google.gson.annotations.JsonAdapter;
+import com.google.gson.annotations.SerializedName;
+import com.projeto.config.MoneyAdapter;
+
 public class OrderItem extends BaseEntity {
     
     private Long orderId;
     private String product;
     private Integer quantity;
-    private Double unitPrice;
+    @SerializedName("unitPrice")
+    @JsonAdapter(MoneyAdapter.class)
+    private long unitPriceCents;
     
     public OrderItem() {
         super();
     }
     
-    public OrderItem(Long orderId, String product, Integer quantity, Double unitPrice) {
+    public OrderItem(Long orderId, String product, Integer quantity, long unitPriceCents) {
         super();
         this.orderId = orderId;
         this.product = product;
         this.quantity = quantity;
-        this.unitPrice = unitPrice;
+        this.unitPriceCents = unitPriceCents;
     }
     
     public Long getOrderId() {
@@ -49,19 +55,19 @@ public class OrderItem extends BaseEntity {
         this.quantity = quantity;
     }
     
-    public Double getUnitPrice() {
-        return unitPrice;
+    public long getUnitPriceCents() {
+        return unitPriceCents;
     }
     
-    public void setUnitPrice(Double unitPrice) {
-        if (unitPrice == null || unitPrice < 0) {
+    public void setUnitPriceCents(long unitPriceCents) {
+        if (unitPriceCents < 0) {
             throw new IllegalArgumentException("Preço não pode ser negativo");
         }
-        this.unitPrice = unitPrice;
+        this.unitPriceCents = unitPriceCents;
     }
     
-    public Double getSubtotal() {
-        return unitPrice * quantity;
+    public long getSubtotalCents() {
+        return Money.multiply(unitPriceCents, quantity);
     }
     
     @Override
@@ -71,8 +77,8 @@ public class OrderItem extends BaseEntity {
                 ", orderId=" + orderId +
                 ", product='" + product + '\'' +
                 ", quantity=" + quantity +
-                ", unitPrice=" + unitPrice +
-                ", subtotal=" + getSubtotal() +
+                ", unitPrice=" + Money.format(unitPriceCents) +
+                ", subtotal=" + Money.format(getSubtotalCents()) +
                 ", createdAt=" + createdAt +
                 '}';
     }
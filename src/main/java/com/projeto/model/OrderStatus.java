@@ -0,0 +1,66 @@
+package com.projeto.model;
+
+import java.util.EnumSet;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Estados do pedido e transições permitidas:
+ * <pre>
+ * PENDING ──► CONFIRMED ──► CANCELLED
+ *    └─────────────────────────▲
+ * </pre>
+ * No banco cada estado é gravado pelo seu {@link #code()} (SMALLINT).
+ */
+public enum OrderStatus {
+
+    PENDING(0),
+    CONFIRMED(1),
+    CANCELLED(2);
+
+    private static final OrderStatus[] BY_CODE = values();
+
+    private final int code;
+
+    OrderStatus(int code) {
+        this.code = code;
+    }
+
+    public int code() {
+        return code;
+    }
+
+    /**
+     * Estados a partir dos quais se pode chegar a este.
+     */
+    public Set<OrderStatus> allowedSources() {
+        return switch (this) {
+            case PENDING -> EnumSet.noneOf(OrderStatus.class);
+            case CONFIRMED -> EnumSet.of(PENDING);
+            case CANCELLED -> EnumSet.of(PENDING, CONFIRMED);
+        };
+    }
+
+    public boolean canTransitionTo(OrderStatus target) {
+        return target.allowedSources().contains(this);
+    }
+
+    public static OrderStatus fromCode(int code) {
+        if (code < 0 || code >= BY_CODE.length) {
+            throw new IllegalArgumentException("Código de status desconhecido: " + code);
+        }
+        return BY_CODE[code];
+    }
+
+    public static OrderStatus parse(String value) {
+        if (value == null || value.isBlank()) {
+            throw new IllegalArgumentException("Status não informado");
+        }
+
+        try {
+            return valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Status inválido: " + value + " (use PENDING, CONFIRMED ou CANCELLED)");
+        }
+    }
+}
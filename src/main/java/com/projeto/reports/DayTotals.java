@@ -0,0 +1,21 @@
+package com.projeto.reports;
+
+import com.google.gson.annotations.JsonAdapter;
+import com.projeto.config.MoneyAdapter;
+
+import java.time.LocalDate;
+
+/**
+ * Pedidos criados no dia, por status atual.
+ *
+ * @param revenue soma dos pedidos confirmados
+ */
+public record DayTotals(
+        LocalDate day,
+        long orders,
+        long pending,
+        long confirmed,
+        long cancelled,
+        @JsonAdapter(MoneyAdapter.class) long revenue
+) {
+}
@@ -0,0 +1,10 @@
+package com.projeto.reports;
+
+import com.google.gson.annotations.JsonAdapter;
+import com.projeto.config.MoneyAdapter;
+
+/**
+ * Vendas de um produto em pedidos confirmados.
+ */
+public record ProductTotals(String product, long quantity, @JsonAdapter(MoneyAdapter.class) long revenue) {
+}
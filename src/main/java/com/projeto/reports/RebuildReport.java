@@ -0,0 +1,12 @@
+package com.projeto.reports;
+
+import java.util.List;
+
+/**
+ * Resultado de {@link SalesRollup#rebuild}.
+ *
+ * @param differences o que os contadores em memória tinham de diferente do
+ *                    recalculado a partir do banco (vazio quando consistentes)
+ */
+public record RebuildReport(boolean consistent, List<String> differences, long orders, long millis) {
+}
@@ -0,0 +1,25 @@
+package com.projeto.reports;
+
+import com.google.gson.annotations.JsonAdapter;
+import com.projeto.config.MoneyAdapter;
+import com.projeto.model.OrderStatus;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Resposta do GET /reports.
+ *
+ * @param revenue soma dos pedidos confirmados
+ */
+public record SalesReport(
+        LocalDateTime generatedAt,
+        long orders,
+        @JsonAdapter(MoneyAdapter.class) long revenue,
+        Map<OrderStatus, StatusTotals> byStatus,
+        List<DayTotals> byDay,
+        List<ProductTotals> topProductsByQuantity,
+        List<ProductTotals> topProductsByRevenue
+) {
+}
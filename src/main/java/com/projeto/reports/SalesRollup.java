@@ -0,0 +1,472 @@
+package com.projeto.reports;
+
+import com.projeto.changes.ChangeListener;
+import com.projeto.changes.ChangeLog;
+import com.projeto.changes.OrderChange;
+import com.projeto.logging.Log;
+import com.projeto.logging.Logger;
+import com.projeto.model.Money;
+import com.projeto.model.Order;
+import com.projeto.model.OrderItem;
+import com.projeto.model.OrderStatus;
+import com.projeto.repository.OrderItemRepository;
+import com.projeto.repository.OrderQuery;
+import com.projeto.repository.OrderRepository;
+
+import java.io.IOException;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Totais de vendas mantidos em memória para o GET /reports: pedidos e valor
+ * por status, por dia de criação e os produtos mais vendidos.
+ *
+ * Cada mudança do {@link ChangeLog} ajusta só os contadores do pedido e dos
+ * itens envolvidos (uma confirmação ou um cancelamento percorre os itens
+ * daquele pedido), e o ranking de produtos é mantido ordenado. Assim o custo
+ * do relatório depende de quantos dias e produtos ele mostra, não de quantos
+ * pedidos existem.
+ *
+ * Produtos só contam em pedidos confirmados. Como no
+ * {@link com.projeto.search.SearchIndex}, o estado é guardado por pedido e por
+ * item, então reaplicar uma mudança já vista não conta nada duas vezes. Uma
+ * mudança que chega depois de outra mais nova do mesmo pedido (ver
+ * {@link OrderChange}) não volta o status nem o total: cada pedido guarda a
+ * última versão aplicada, e os itens removidos ficam marcados para não
+ * reaparecerem.
+ */
+public class SalesRollup implements ChangeListener {
+
+    private static final Logger LOG = Log.getLogger(SalesRollup.class);
+
+    private static final int MAX_DIFFERENCES = 100;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private Rollup rollup = new Rollup();
+    private boolean loaded;
+
+    @Override
+    public void onChange(OrderChange change) {
+        lock.writeLock().lock();
+
+        try {
+            rollup.onChange(change);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * @param from primeiro dia de {@code byDay} (inclusive)
+     * @param to   último dia de {@code byDay} (inclusive)
+     * @param top  tamanho dos rankings de produtos
+     */
+    public SalesReport report(LocalDate from, LocalDate to, int top) {
+        lock.readLock().lock();
+
+        try {
+            return rollup.report(from, to, top);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Recalcula tudo a partir do banco, compara com os contadores atuais e
+     * coloca os recalculados no lugar. As mudanças feitas durante a leitura
+     * entram antes da comparação (ver {@link ChangeLog#rebuild}).
+     */
+    public RebuildReport rebuild(OrderRepository orders, OrderItemRepository items, ChangeLog changes)
+            throws SQLException, IOException {
+        long start = System.nanoTime();
+        List<String> differences = new ArrayList<>();
+
+        Rollup fresh = changes.rebuild(() -> {
+            Rollup recalculated = new Rollup();
+            orders.streamAll(OrderQuery.all(), recalculated::putOrder);
+            items.streamAll(recalculated::putItem);
+            return recalculated;
+        }, recalculated -> {
+            lock.writeLock().lock();
+
+            try {
+                // na primeira carga não há o que conferir
+                if (loaded) {
+                    differences.addAll(rollup.differencesFrom(recalculated));
+                }
+                rollup = recalculated;
+                loaded = true;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+
+        long millis = (System.nanoTime() - start) / 1_000_000;
+        LOG.info("Relatórios recalculados", "orders", fresh.orders.size(), "differences", differences.size(),
+                "ms", millis);
+        return new RebuildReport(differences.isEmpty(), differences, fresh.orders.size(), millis);
+    }
+
+    public int orders() {
+        lock.readLock().lock();
+
+        try {
+            return rollup.orders.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static final class OrderFacts {
+        private final LocalDate day;
+        private final Set<Long> itemIds = new HashSet<>();
+        private final Set<Long> deletedItemIds = new HashSet<>();
+        private OrderStatus status;
+        private long totalCents;
+        private long version;
+
+        private OrderFacts(LocalDate day, OrderStatus status, long totalCents, long version) {
+            this.day = day;
+            this.status = status;
+            this.totalCents = totalCents;
+            this.version = version;
+        }
+    }
+
+    private record ItemFacts(long orderId, String product, int quantity, long subtotalCents) {
+    }
+
+    /**
+     * Contadores de um dia (ou do total), indexados por {@link OrderStatus#code()}.
+     */
+    private static final class Counters {
+        private final long[] orders = new long[OrderStatus.values().length];
+        private final long[] values = new long[OrderStatus.values().length];
+
+        void add(OrderStatus status, long totalCents, int sign) {
+            orders[status.code()] += sign;
+            values[status.code()] += sign * totalCents;
+        }
+
+        boolean isEmpty() {
+            for (int i = 0; i < orders.length; i++) {
+                if (orders[i] != 0 || values[i] != 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        long orders() {
+            long total = 0;
+            for (long count : orders) {
+                total += count;
+            }
+            return total;
+        }
+
+        long orders(OrderStatus status) {
+            return orders[status.code()];
+        }
+
+        long value(OrderStatus status) {
+            return values[status.code()];
+        }
+    }
+
+    private static final class ProductStats {
+        private final String product;
+        private long quantity;
+        private long revenueCents;
+
+        private ProductStats(String product) {
+            this.product = product;
+        }
+
+        ProductTotals totals() {
+            return new ProductTotals(product, quantity, revenueCents);
+        }
+    }
+
+    /**
+     * Estado dos relatórios. Não é thread-safe: quem usa segura o lock do
+     * SalesRollup (ou é o único dono, durante a reconstrução).
+     */
+    private static final class Rollup implements ChangeListener {
+
+        private static final Comparator<ProductStats> BY_QUANTITY = Comparator
+                .comparingLong((ProductStats p) -> p.quantity).reversed()
+                .thenComparing(p -> p.product);
+        private static final Comparator<ProductStats> BY_REVENUE = Comparator
+                .comparingLong((ProductStats p) -> p.revenueCents).reversed()
+                .thenComparing(p -> p.product);
+
+        private final Map<Long, OrderFacts> orders = new HashMap<>();
+        private final Map<Long, ItemFacts> items = new HashMap<>();
+        private final Counters totals = new Counters();
+        private final TreeMap<LocalDate, Counters> days = new TreeMap<>();
+        private final Map<String, ProductStats> products = new HashMap<>();
+        private final TreeSet<ProductStats> byQuantity = new TreeSet<>(BY_QUANTITY);
+        private final TreeSet<ProductStats> byRevenue = new TreeSet<>(BY_REVENUE);
+
+        @Override
+        public void onChange(OrderChange change) {
+            switch (change.type()) {
+                case ORDER_CREATED -> putOrder(change.order());
+                case ITEMS_ADDED -> {
+                    change.items().forEach(this::putItem);
+                    updateOrder(change.order(), change.version());
+                }
+                case ITEM_DELETED -> {
+                    change.items().forEach(item -> removeItem(item.getOrderId(), item.getId()));
+                    updateOrder(change.order(), change.version());
+                }
+                case STATUS_CHANGED -> {
+                    updateOrder(change.order(), change.version());
+                    if (change.order().getItems() != null) {
+                        change.order().getItems().forEach(this::putItem);
+                    }
+                }
+                case ORDER_DELETED -> removeOrder(change.orderId());
+            }
+        }
+
+        void putOrder(Order order) {
+            if (orders.containsKey(order.getId())) {
+                updateOrder(order, order.getVersion());
+                return;
+            }
+
+            OrderFacts facts = new OrderFacts(order.getCreatedAt().toLocalDate(), order.getStatus(),
+                    order.getTotalCents(), order.getVersion());
+            orders.put(order.getId(), facts);
+            count(facts, 1);
+        }
+
+        /**
+         * Aplica o status e o total do pedido se {@code version} for mais nova
+         * que a última aplicada. Entrar ou sair de CONFIRMED soma ou desconta
+         * os itens dele nos produtos.
+         */
+        void updateOrder(Order order, long version) {
+            OrderFacts facts = order != null ? orders.get(order.getId()) : null;
+
+            if (facts == null || version <= facts.version) {
+                return;
+            }
+
+            facts.version = version;
+
+            if (facts.status == order.getStatus() && facts.totalCents == order.getTotalCents()) {
+                return;
+            }
+
+            boolean wasConfirmed = facts.status == OrderStatus.CONFIRMED;
+            boolean confirmed = order.getStatus() == OrderStatus.CONFIRMED;
+
+            count(facts, -1);
+            facts.status = order.getStatus();
+            facts.totalCents = order.getTotalCents();
+            count(facts, 1);
+
+            if (wasConfirmed != confirmed) {
+                for (Long itemId : facts.itemIds) {
+                    addProduct(items.get(itemId), confirmed ? 1 : -1);
+                }
+            }
+        }
+
+        void putItem(OrderItem item) {
+            OrderFacts facts = orders.get(item.getOrderId());
+
+            if (facts == null || items.containsKey(item.getId()) || facts.deletedItemIds.contains(item.getId())) {
+                return;
+            }
+
+            ItemFacts itemFacts = new ItemFacts(item.getOrderId(), item.getProduct(), item.getQuantity(),
+                    Money.multiply(item.getUnitPriceCents(), item.getQuantity()));
+            items.put(item.getId(), itemFacts);
+            facts.itemIds.add(item.getId());
+
+            if (facts.status == OrderStatus.CONFIRMED) {
+                addProduct(itemFacts, 1);
+            }
+        }
+
+        /**
+         * A marca em {@code deletedItemIds} fica mesmo se o item ainda não
+         * chegou: a inclusão dele pode vir depois, fora de ordem.
+         */
+        void removeItem(long orderId, long itemId) {
+            OrderFacts facts = orders.get(orderId);
+
+            if (facts == null) {
+                return;
+            }
+
+            facts.deletedItemIds.add(itemId);
+            ItemFacts item = items.remove(itemId);
+
+            if (item != null) {
+                facts.itemIds.remove(itemId);
+
+                if (facts.status == OrderStatus.CONFIRMED) {
+                    addProduct(item, -1);
+                }
+            }
+        }
+
+        void removeOrder(long orderId) {
+            OrderFacts facts = orders.get(orderId);
+
+            if (facts == null) {
+                return;
+            }
+
+            for (Long itemId : new ArrayList<>(facts.itemIds)) {
+                removeItem(orderId, itemId);
+            }
+
+            count(facts, -1);
+            orders.remove(orderId);
+        }
+
+        private void count(OrderFacts facts, int sign) {
+            totals.add(facts.status, facts.totalCents, sign);
+
+            Counters day = days.computeIfAbsent(facts.day, d -> new Counters());
+            day.add(facts.status, facts.totalCents, sign);
+
+            if (day.isEmpty()) {
+                days.remove(facts.day);
+            }
+        }
+
+        /**
+         * Reposiciona o produto nos dois rankings: sai do TreeSet antes de
+         * mudar os campos que ordenam e volta depois.
+         */
+        private void addProduct(ItemFacts item, int sign) {
+            ProductStats stats = products.computeIfAbsent(item.product(), ProductStats::new);
+
+            byQuantity.remove(stats);
+            byRevenue.remove(stats);
+
+            stats.quantity += (long) sign * item.quantity();
+            stats.revenueCents += sign * item.subtotalCents();
+
+            if (stats.quantity == 0 && stats.revenueCents == 0) {
+                products.remove(item.product());
+                return;
+            }
+
+            byQuantity.add(stats);
+            byRevenue.add(stats);
+        }
+
+        SalesReport report(LocalDate from, LocalDate to, int top) {
+            Map<OrderStatus, StatusTotals> byStatus = new EnumMap<>(OrderStatus.class);
+            for (OrderStatus status : OrderStatus.values()) {
+                byStatus.put(status, new StatusTotals(totals.orders(status), totals.value(status)));
+            }
+
+            List<DayTotals> byDay = new ArrayList<>();
+            for (Map.Entry<LocalDate, Counters> entry : days.subMap(from, true, to, true).entrySet()) {
+                Counters day = entry.getValue();
+                byDay.add(new DayTotals(entry.getKey(), day.orders(),
+                        day.orders(OrderStatus.PENDING), day.orders(OrderStatus.CONFIRMED),
+                        day.orders(OrderStatus.CANCELLED), day.value(OrderStatus.CONFIRMED)));
+            }
+
+            return new SalesReport(LocalDateTime.now(), totals.orders(), totals.value(OrderStatus.CONFIRMED),
+                    byStatus, byDay, top(byQuantity, top), top(byRevenue, top));
+        }
+
+        private static List<ProductTotals> top(TreeSet<ProductStats> ranking, int limit) {
+            List<ProductTotals> result = new ArrayList<>(Math.min(limit, ranking.size()));
+            Iterator<ProductStats> it = ranking.iterator();
+
+            while (it.hasNext() && result.size() < limit) {
+                result.add(it.next().totals());
+            }
+
+            return result;
+        }
+
+        /**
+         * Diferenças entre estes contadores (em memória) e {@code expected}
+         * (recalculados do banco), no máximo {@value #MAX_DIFFERENCES}.
+         */
+        List<String> differencesFrom(Rollup expected) {
+            List<String> differences = new ArrayList<>();
+
+            for (OrderStatus status : OrderStatus.values()) {
+                compare(differences, "status " + status + " pedidos",
+                        totals.orders(status), expected.totals.orders(status));
+                compare(differences, "status " + status + " valor",
+                        totals.value(status), expected.totals.value(status));
+            }
+
+            Set<LocalDate> allDays = new HashSet<>(days.keySet());
+            allDays.addAll(expected.days.keySet());
+
+            for (LocalDate day : new TreeSet<>(allDays)) {
+                Counters actual = days.getOrDefault(day, new Counters());
+                Counters recalculated = expected.days.getOrDefault(day, new Counters());
+
+                for (OrderStatus status : OrderStatus.values()) {
+                    compare(differences, "dia " + day + " " + status + " pedidos",
+                            actual.orders(status), recalculated.orders(status));
+                    compare(differences, "dia " + day + " " + status + " valor",
+                            actual.value(status), recalculated.value(status));
+                }
+            }
+
+            Set<String> allProducts = new HashSet<>(products.keySet());
+            allProducts.addAll(expected.products.keySet());
+
+            for (String product : new TreeSet<>(allProducts)) {
+                ProductTotals actual = totalsOf(products.get(product), product);
+                ProductTotals recalculated = totalsOf(expected.products.get(product), product);
+
+                if (!Objects.equals(actual, recalculated)) {
+                    add(differences, "produto " + product + ": " + actual.quantity() + " un. / " +
+                            Money.format(actual.revenue()) + " em memória, " + recalculated.quantity() + " un. / " +
+                            Money.format(recalculated.revenue()) + " no banco");
+                }
+            }
+
+            return differences;
+        }
+
+        private static ProductTotals totalsOf(ProductStats stats, String product) {
+            return stats != null ? stats.totals() : new ProductTotals(product, 0, 0);
+        }
+
+        private static void compare(List<String> differences, String label, long actual, long expected) {
+            if (actual != expected) {
+                add(differences, label + ": " + actual + " em memória, " + expected + " no banco");
+            }
+        }
+
+        private static void add(List<String> differences, String difference) {
+            if (differences.size() < MAX_DIFFERENCES) {
+                differences.add(difference);
+            }
+        }
+    }
+}
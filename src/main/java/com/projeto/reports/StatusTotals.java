@@ -0,0 +1,10 @@
+package com.projeto.reports;
+
+import com.google.gson.annotations.JsonAdapter;
+import com.projeto.config.MoneyAdapter;
+
+/**
+ * @param value soma dos totais dos pedidos no status
+ */
+public record StatusTotals(long orders, @JsonAdapter(MoneyAdapter.class) long value) {
+}
@@ -0,0 +1,94 @@
+package com.projeto.repository;
+
+import com.projeto.database.DatabaseConnection;
+import com.projeto.idempotency.StoredResponse;
+import com.projeto.metrics.LatencyHistogram;
+import com.projeto.metrics.Metrics;
+
+import java.sql.*;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+/**
+ * Cópia em disco das respostas guardadas por Idempotency-Key, para que uma
+ * repetição continue reconhecida depois de um reinício (modo file).
+ */
+public class IdempotencyRepository {
+
+    private static final LatencyHistogram FIND_TIMER = Metrics.jdbc("IdempotencyRepository.find");
+    private static final LatencyHistogram SAVE_TIMER = Metrics.jdbc("IdempotencyRepository.save");
+    private static final LatencyHistogram DELETE_EXPIRED_TIMER = Metrics.jdbc("IdempotencyRepository.deleteExpired");
+
+    /**
+     * @return a resposta gravada depois de {@code notBefore}, ou vazio
+     */
+    public Optional<StoredResponse> find(String key, LocalDateTime notBefore) throws SQLException {
+        long start = System.nanoTime();
+
+        try {
+            String sql = "SELECT fingerprint, status, content_type, body FROM idempotency_keys " +
+                    "WHERE idempotency_key = ? AND created_at >= ?";
+
+            try (Connection conn = DatabaseConnection.getConnection();
+                 PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+                stmt.setString(1, key);
+                stmt.setTimestamp(2, Timestamp.valueOf(notBefore));
+
+                try (ResultSet rs = stmt.executeQuery()) {
+                    if (rs.next()) {
+                        return Optional.of(new StoredResponse(
+                                rs.getString("fingerprint"),
+                                rs.getInt("status"),
+                                rs.getString("content_type"),
+                                rs.getString("body")));
+                    }
+                }
+            }
+
+            return Optional.empty();
+        } finally {
+            FIND_TIMER.recordSince(start);
+        }
+    }
+
+    public void save(String key, StoredResponse response) throws SQLException {
+        long start = System.nanoTime();
+
+        try {
+            String sql = "MERGE INTO idempotency_keys (idempotency_key, fingerprint, status, content_type, body, created_at) " +
+                    "KEY (idempotency_key) VALUES (?, ?, ?, ?, ?, ?)";
+
+            try (Connection conn = DatabaseConnection.getConnection();
+                 PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+                stmt.setString(1, key);
+                stmt.setString(2, response.fingerprint());
+                stmt.setInt(3, response.status());
+                stmt.setString(4, response.contentType());
+                stmt.setString(5, response.body());
+                stmt.setTimestamp(6, Timestamp.valueOf(LocalDateTime.now()));
+                stmt.executeUpdate();
+            }
+        } finally {
+            SAVE_TIMER.recordSince(start);
+        }
+    }
+
+    public int deleteExpired(LocalDateTime before) throws SQLException {
+        long start = System.nanoTime();
+
+        try {
+            String sql = "DELETE FROM idempotency_keys WHERE created_at < ?";
+
+            try (Connection conn = DatabaseConnection.getConnection();
+                 PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+                stmt.setTimestamp(1, Timestamp.valueOf(before));
+                return stmt.executeUpdate();
+            }
+        } finally {
+            DELETE_EXPIRED_TIMER.recordSince(start);
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package com.projeto.repository;
+
+import java.sql.SQLException;
+
+/**
+ * Pedido ou item inexistente. Continua sendo uma SQLException, para não
+ * mudar as assinaturas dos repositórios e do serviço; o Router responde 404.
+ */
+public class NotFoundException extends SQLException {
+
+    private static final long serialVersionUID = 1L;
+
+    public NotFoundException(String message) {
+        super(message);
+    }
+}
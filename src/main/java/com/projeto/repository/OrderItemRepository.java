@@ -1,144 +1,422 @@
 package com.projeto.repository;
 
 import com.projeto.database.DatabaseConnection;
+import com.projeto.logging.Log;
+import com.projeto.logging.Logger;
+import com.projeto.metrics.LatencyHistogram;
+import com.projeto.metrics.Metrics;
 import com.projeto.model.OrderItem;
 
+import java.io.IOException;
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 public class OrderItemRepository {
+
+    private static final Logger LOG = Log.getLogger(OrderItemRepository.class);
+
+    private static final LatencyHistogram SAVE_TIMER = Metrics.jdbc("OrderItemRepository.save");
+    private static final LatencyHistogram SAVE_ALL_TIMER = Metrics.jdbc("OrderItemRepository.saveAll");
+    private static final LatencyHistogram FIND_BY_ID_TIMER = Metrics.jdbc("OrderItemRepository.findById");
+    private static final LatencyHistogram FIND_BY_ORDER_ID_TIMER = Metrics.jdbc("OrderItemRepository.findByOrderId");
+    private static final LatencyHistogram FIND_VERSIONED_TIMER = Metrics.jdbc("OrderItemRepository.findVersionedByOrderId");
+    private static final LatencyHistogram FIND_BY_ORDER_IDS_TIMER = Metrics.jdbc("OrderItemRepository.findByOrderIds");
+    private static final LatencyHistogram FIND_ALL_TIMER = Metrics.jdbc("OrderItemRepository.findAll");
+    private static final LatencyHistogram STREAM_ALL_TIMER = Metrics.jdbc("OrderItemRepository.streamAll");
+    private static final LatencyHistogram UPDATE_TIMER = Metrics.jdbc("OrderItemRepository.update");
+    private static final LatencyHistogram DELETE_BY_ID_TIMER = Metrics.jdbc("OrderItemRepository.deleteById");
+    private static final LatencyHistogram DELETE_RETURNING_TIMER = Metrics.jdbc("OrderItemRepository.deleteReturning");
+    private static final LatencyHistogram DELETE_BY_ORDER_ID_TIMER = Metrics.jdbc("OrderItemRepository.deleteByOrderId");
+
+    private static final int BATCH_CHUNK_SIZE = 1000;
+    private static final int INSERT_BATCH_SIZE = 500;
+    private static final int STREAM_FETCH_SIZE = 1024;
     
     public OrderItem save(OrderItem item) throws SQLException {
-        String sql = "INSERT INTO order_items (order_id, product, quantity, unit_price, created_at) VALUES (?, ?, ?, ?, ?)";
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            return save(conn, item);
+        }
+    }
+    
+    public OrderItem save(Connection conn, OrderItem item) throws SQLException {
+        long start = System.nanoTime();
+
+        try {
+            String sql = "INSERT INTO order_items (order_id, product, quantity, unit_price_cents, created_at) VALUES (?, ?, ?, ?, ?)";
         
-        try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+            try (PreparedStatement stmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
             
-            stmt.setLong(1, item.getOrderId());
-            stmt.setString(2, item.getProduct());
-            stmt.setInt(3, item.getQuantity());
-            stmt.setDouble(4, item.getUnitPrice());
-            stmt.setTimestamp(5, Timestamp.valueOf(item.getCreatedAt()));
+                stmt.setLong(1, item.getOrderId());
+                stmt.setString(2, item.getProduct());
+                stmt.setInt(3, item.getQuantity());
+                stmt.setLong(4, item.getUnitPriceCents());
+                stmt.setTimestamp(5, Timestamp.valueOf(item.getCreatedAt()));
             
-            int affectedRows = stmt.executeUpdate();
+                int affectedRows = stmt.executeUpdate();
             
-            if (affectedRows == 0) {
-                throw new SQLException("Falha ao criar item");
-            }
+                if (affectedRows == 0) {
+                    throw new SQLException("Falha ao criar item");
+                }
             
-            try (ResultSet generatedKeys = stmt.getGeneratedKeys()) {
-                if (generatedKeys.next()) {
-                    item.setId(generatedKeys.getLong(1));
+                try (ResultSet generatedKeys = stmt.getGeneratedKeys()) {
+                    if (generatedKeys.next()) {
+                        item.setId(generatedKeys.getLong(1));
+                    }
                 }
+            
+                LOG.info("Item criado", "itemId", item.getId(), "orderId", item.getOrderId());
+                return item;
             }
+        } finally {
+            SAVE_TIMER.recordSince(start);
+        }
+    }
+    
+    /**
+     * Insere vários itens com addBatch/executeBatch (um envio a cada
+     * {@value #INSERT_BATCH_SIZE} linhas) e preenche os ids gerados.
+     * Deve ser chamado dentro de uma transação.
+     */
+    public List<OrderItem> saveAll(Connection conn, List<OrderItem> items) throws SQLException {
+        long start = System.nanoTime();
+
+        try {
+            String sql = "INSERT INTO order_items (order_id, product, quantity, unit_price_cents, created_at) VALUES (?, ?, ?, ?, ?)";
+        
+            try (PreparedStatement stmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+                int batchStart = 0;
             
-            System.out.println("✅ Item criado: " + item.getId());
-            return item;
+                for (int i = 0; i < items.size(); i++) {
+                    OrderItem item = items.get(i);
+                    stmt.setLong(1, item.getOrderId());
+                    stmt.setString(2, item.getProduct());
+                    stmt.setInt(3, item.getQuantity());
+                    stmt.setLong(4, item.getUnitPriceCents());
+                    stmt.setTimestamp(5, Timestamp.valueOf(item.getCreatedAt()));
+                    stmt.addBatch();
+                
+                    if (i + 1 - batchStart == INSERT_BATCH_SIZE || i == items.size() - 1) {
+                        stmt.executeBatch();
+                    
+                        try (ResultSet generatedKeys = stmt.getGeneratedKeys()) {
+                            int index = batchStart;
+                            while (generatedKeys.next() && index <= i) {
+                                items.get(index++).setId(generatedKeys.getLong(1));
+                            }
+                        }
+                    
+                        batchStart = i + 1;
+                    }
+                }
+            }
+        
+            LOG.info("Itens criados em lote", "count", items.size());
+            return items;
+        } finally {
+            SAVE_ALL_TIMER.recordSince(start);
         }
     }
     
     public Optional<OrderItem> findById(Long id) throws SQLException {
-        String sql = "SELECT * FROM order_items WHERE id = ?";
+        long start = System.nanoTime();
+
+        try {
+            String sql = "SELECT * FROM order_items WHERE id = ?";
         
-        try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            try (Connection conn = DatabaseConnection.getConnection();
+                 PreparedStatement stmt = conn.prepareStatement(sql)) {
             
-            stmt.setLong(1, id);
-            ResultSet rs = stmt.executeQuery();
+                stmt.setLong(1, id);
+                ResultSet rs = stmt.executeQuery();
             
-            if (rs.next()) {
-                OrderItem item = mapResultSetToOrderItem(rs);
-                return Optional.of(item);
-            }
+                if (rs.next()) {
+                    OrderItem item = mapResultSetToOrderItem(rs);
+                    return Optional.of(item);
+                }
             
-            return Optional.empty();
+                return Optional.empty();
+            }
+        } finally {
+            FIND_BY_ID_TIMER.recordSince(start);
         }
     }
     
     public List<OrderItem> findByOrderId(Long orderId) throws SQLException {
-        String sql = "SELECT * FROM order_items WHERE order_id = ? ORDER BY created_at";
-        List<OrderItem> items = new ArrayList<>();
+        long start = System.nanoTime();
+
+        try {
+            String sql = "SELECT * FROM order_items WHERE order_id = ? ORDER BY created_at";
+            List<OrderItem> items = new ArrayList<>();
         
-        try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            try (Connection conn = DatabaseConnection.getConnection();
+                 PreparedStatement stmt = conn.prepareStatement(sql)) {
             
-            stmt.setLong(1, orderId);
-            ResultSet rs = stmt.executeQuery();
+                stmt.setLong(1, orderId);
+                ResultSet rs = stmt.executeQuery();
             
-            while (rs.next()) {
-                items.add(mapResultSetToOrderItem(rs));
+                while (rs.next()) {
+                    items.add(mapResultSetToOrderItem(rs));
+                }
             }
-        }
         
-        return items;
+            return items;
+        } finally {
+            FIND_BY_ORDER_ID_TIMER.recordSince(start);
+        }
+    }
+    
+    /**
+     * Itens do pedido e a versão do pedido numa única instrução, logo do
+     * mesmo instante: quem carrega o pedido em paralelo compara as versões
+     * para saber se os itens correspondem à linha do pedido lida.
+     *
+     * @return vazio se o pedido não existe
+     */
+    public Optional<VersionedItems> findVersionedByOrderId(Long orderId) throws SQLException {
+        long start = System.nanoTime();
+
+        try {
+            String sql = "SELECT o.version AS order_version, i.* FROM orders o " +
+                    "LEFT JOIN order_items i ON i.order_id = o.id WHERE o.id = ? ORDER BY i.created_at";
+
+            try (Connection conn = DatabaseConnection.getConnection();
+                 PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+                stmt.setLong(1, orderId);
+
+                try (ResultSet rs = stmt.executeQuery()) {
+                    if (!rs.next()) {
+                        return Optional.empty();
+                    }
+
+                    long version = rs.getLong("order_version");
+                    List<OrderItem> items = new ArrayList<>();
+
+                    do {
+                        if (rs.getObject("id") != null) {
+                            items.add(mapResultSetToOrderItem(rs));
+                        }
+                    } while (rs.next());
+
+                    return Optional.of(new VersionedItems(version, items));
+                }
+            }
+        } finally {
+            FIND_VERSIONED_TIMER.recordSince(start);
+        }
+    }
+    
+    /**
+     * Carrega os itens de vários pedidos de uma vez, em blocos de até
+     * {@value #BATCH_CHUNK_SIZE} ids por consulta, evitando uma consulta por pedido.
+     */
+    public Map<Long, List<OrderItem>> findByOrderIds(Collection<Long> orderIds) throws SQLException {
+        if (orderIds.isEmpty()) {
+            return new HashMap<>();
+        }
+
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            return findByOrderIds(conn, orderIds);
+        }
+    }
+
+    /**
+     * Mesma consulta numa conexão já aberta (ex.: a de um streaming de
+     * pedidos, que não pode esperar por uma segunda conexão do pool).
+     */
+    public Map<Long, List<OrderItem>> findByOrderIds(Connection conn, Collection<Long> orderIds) throws SQLException {
+        long start = System.nanoTime();
+
+        try {
+            Map<Long, List<OrderItem>> itemsByOrder = new HashMap<>();
+
+            if (orderIds.isEmpty()) {
+                return itemsByOrder;
+            }
+
+            String sql = "SELECT * FROM order_items WHERE order_id = ANY(?) ORDER BY order_id, created_at";
+            Long[] ids = orderIds.toArray(new Long[0]);
+
+            try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+                for (int from = 0; from < ids.length; from += BATCH_CHUNK_SIZE) {
+                    int to = Math.min(from + BATCH_CHUNK_SIZE, ids.length);
+                    Object[] chunk = Arrays.copyOfRange(ids, from, to, Object[].class);
+
+                    stmt.setArray(1, conn.createArrayOf("BIGINT", chunk));
+
+                    try (ResultSet rs = stmt.executeQuery()) {
+                        while (rs.next()) {
+                            OrderItem item = mapResultSetToOrderItem(rs);
+                            itemsByOrder.computeIfAbsent(item.getOrderId(), k -> new ArrayList<>()).add(item);
+                        }
+                    }
+                }
+            }
+
+            return itemsByOrder;
+        } finally {
+            FIND_BY_ORDER_IDS_TIMER.recordSince(start);
+        }
     }
     
     public List<OrderItem> findAll() throws SQLException {
-        String sql = "SELECT * FROM order_items ORDER BY created_at DESC";
-        List<OrderItem> items = new ArrayList<>();
+        long start = System.nanoTime();
+
+        try {
+            String sql = "SELECT * FROM order_items ORDER BY created_at DESC";
+            List<OrderItem> items = new ArrayList<>();
         
-        try (Connection conn = DatabaseConnection.getConnection();
-             Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
+            try (Connection conn = DatabaseConnection.getConnection();
+                 Statement stmt = conn.createStatement();
+                 ResultSet rs = stmt.executeQuery(sql)) {
             
-            while (rs.next()) {
-                items.add(mapResultSetToOrderItem(rs));
+                while (rs.next()) {
+                    items.add(mapResultSetToOrderItem(rs));
+                }
             }
-        }
         
-        return items;
+            return items;
+        } finally {
+            FIND_ALL_TIMER.recordSince(start);
+        }
+    }
+    
+    /**
+     * Percorre todos os itens linha a linha, sem ordem definida (usado para
+     * reconstruir as visões em memória). Como em {@link OrderRepository#streamAll},
+     * o resultado não é materializado.
+     */
+    public void streamAll(RowCallback<OrderItem> callback) throws SQLException, IOException {
+        long start = System.nanoTime();
+
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            try (Statement lazy = conn.createStatement()) {
+                lazy.execute("SET LAZY_QUERY_EXECUTION TRUE");
+            }
+
+            try (Statement stmt = conn.createStatement()) {
+                stmt.setFetchSize(STREAM_FETCH_SIZE);
+
+                try (ResultSet rs = stmt.executeQuery("SELECT * FROM order_items")) {
+                    while (rs.next()) {
+                        callback.accept(mapResultSetToOrderItem(rs));
+                    }
+                }
+            } finally {
+                try (Statement lazy = conn.createStatement()) {
+                    lazy.execute("SET LAZY_QUERY_EXECUTION FALSE");
+                }
+            }
+        } finally {
+            STREAM_ALL_TIMER.recordSince(start);
+        }
     }
     
     public OrderItem update(OrderItem item) throws SQLException {
-        String sql = "UPDATE order_items SET product = ?, quantity = ?, unit_price = ? WHERE id = ?";
+        long start = System.nanoTime();
+
+        try {
+            String sql = "UPDATE order_items SET product = ?, quantity = ?, unit_price_cents = ? WHERE id = ?";
         
-        try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            try (Connection conn = DatabaseConnection.getConnection();
+                 PreparedStatement stmt = conn.prepareStatement(sql)) {
             
-            stmt.setString(1, item.getProduct());
-            stmt.setInt(2, item.getQuantity());
-            stmt.setDouble(3, item.getUnitPrice());
-            stmt.setLong(4, item.getId());
+                stmt.setString(1, item.getProduct());
+                stmt.setInt(2, item.getQuantity());
+                stmt.setLong(3, item.getUnitPriceCents());
+                stmt.setLong(4, item.getId());
             
-            int affectedRows = stmt.executeUpdate();
+                int affectedRows = stmt.executeUpdate();
             
-            if (affectedRows == 0) {
-                throw new SQLException("Item não encontrado: " + item.getId());
-            }
+                if (affectedRows == 0) {
+                    throw new NotFoundException("Item não encontrado: " + item.getId());
+                }
             
-            System.out.println("✅ Item atualizado: " + item.getId());
-            return item;
+                LOG.info("Item atualizado", "itemId", item.getId());
+                return item;
+            }
+        } finally {
+            UPDATE_TIMER.recordSince(start);
         }
     }
     
     public void deleteById(Long id) throws SQLException {
-        String sql = "DELETE FROM order_items WHERE id = ?";
+        long start = System.nanoTime();
+
+        try {
+            String sql = "DELETE FROM order_items WHERE id = ?";
         
-        try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            try (Connection conn = DatabaseConnection.getConnection();
+                 PreparedStatement stmt = conn.prepareStatement(sql)) {
+            
+                stmt.setLong(1, id);
+                int affectedRows = stmt.executeUpdate();
             
-            stmt.setLong(1, id);
-            int affectedRows = stmt.executeUpdate();
+                if (affectedRows == 0) {
+                    throw new NotFoundException("Item não encontrado: " + id);
+                }
             
-            if (affectedRows == 0) {
-                throw new SQLException("Item não encontrado: " + id);
+                LOG.info("Item deletado", "itemId", id);
             }
+        } finally {
+            DELETE_BY_ID_TIMER.recordSince(start);
+        }
+    }
+    
+    /**
+     * Remove o item e devolve a linha removida no mesmo comando,
+     * para que o chamador saiba o pedido e o subtotal sem um SELECT antes.
+     */
+    public Optional<OrderItem> deleteReturning(Connection conn, Long id) throws SQLException {
+        long start = System.nanoTime();
+
+        try {
+            String sql = "SELECT * FROM OLD TABLE (DELETE FROM order_items WHERE id = ?)";
+        
+            try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                stmt.setLong(1, id);
             
-            System.out.println("❌ Item deletado: " + id);
+                try (ResultSet rs = stmt.executeQuery()) {
+                    if (rs.next()) {
+                        LOG.info("Item deletado", "itemId", id);
+                        return Optional.of(mapResultSetToOrderItem(rs));
+                    }
+                }
+            }
+        
+            return Optional.empty();
+        } finally {
+            DELETE_RETURNING_TIMER.recordSince(start);
         }
     }
     
     public void deleteByOrderId(Long orderId) throws SQLException {
-        String sql = "DELETE FROM order_items WHERE order_id = ?";
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            deleteByOrderId(conn, orderId);
+        }
+    }
+    
+    public void deleteByOrderId(Connection conn, Long orderId) throws SQLException {
+        long start = System.nanoTime();
+
+        try {
+            String sql = "DELETE FROM order_items WHERE order_id = ?";
         
-        try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            try (PreparedStatement stmt = conn.prepareStatement(sql)) {
             
-            stmt.setLong(1, orderId);
-            stmt.executeUpdate();
-            System.out.println("❌ Todos os itens do pedido " + orderId + " foram deletados");
+                stmt.setLong(1, orderId);
+                stmt.executeUpdate();
+                LOG.info("Itens do pedido deletados", "orderId", orderId);
+            }
+        } finally {
+            DELETE_BY_ORDER_ID_TIMER.recordSince(start);
         }
     }
     
@@ -148,7 +426,7 @@ public class OrderItemRepository {
         item.setOrderId(rs.getLong("order_id"));
         item.setProduct(rs.getString("product"));
         item.setQuantity(rs.getInt("quantity"));
-        item.setUnitPrice(rs.getDouble("unit_price"));
+        item.setUnitPriceCents(rs.getLong("unit_price_cents"));
         item.setCreatedAt(rs.getTimestamp("created_at").toLocalDateTime());
         return item;
     }
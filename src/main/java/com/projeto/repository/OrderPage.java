@@ -0,0 +1,11 @@
+package com.projeto.repository;
+
+import com.projeto.model.Order;
+
+import java.util.List;
+
+/**
+ * Uma página da listagem; {@code nextCursor} é nulo na última página.
+ */
+public record OrderPage(List<Order> orders, OrderCursor nextCursor) {
+}
@@ -0,0 +1,40 @@
+package com.projeto.repository;
+
+import com.projeto.model.OrderStatus;
+
+import java.time.LocalDateTime;
+
+/**
+ * Filtros e paginação da listagem de pedidos.
+ * Campos nulos não filtram.
+ */
+public record OrderQuery(
+        int limit,
+        OrderCursor after,
+        OrderStatus status,
+        String customerName,
+        LocalDateTime createdFrom,
+        LocalDateTime createdTo,
+        boolean includeItems
+) {
+
+    public static final int DEFAULT_LIMIT = 50;
+    public static final int MAX_LIMIT = 500;
+
+    public OrderQuery {
+        if (limit <= 0 || limit > MAX_LIMIT) {
+            throw new IllegalArgumentException("limit deve estar entre 1 e " + MAX_LIMIT);
+        }
+    }
+
+    public static OrderQuery firstPage() {
+        return new OrderQuery(DEFAULT_LIMIT, null, null, null, null, null, true);
+    }
+
+    /**
+     * Todos os pedidos, sem itens, para {@link OrderRepository#streamAll}.
+     */
+    public static OrderQuery all() {
+        return new OrderQuery(DEFAULT_LIMIT, null, null, null, null, null, false);
+    }
+}
@@ -1,113 +1,435 @@
 package com.projeto.repository;
 
 import com.projeto.database.DatabaseConnection;
+import com.projeto.logging.Log;
+import com.projeto.logging.Logger;
+import com.projeto.metrics.LatencyHistogram;
+import com.projeto.metrics.Metrics;
 import com.projeto.model.Order;
+import com.projeto.model.OrderStatus;
 
+import java.io.IOException;
 import java.sql.*;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.Set;
 
 public class OrderRepository {
+
+    private static final Logger LOG = Log.getLogger(OrderRepository.class);
+
+    private static final LatencyHistogram SAVE_TIMER = Metrics.jdbc("OrderRepository.save");
+    private static final LatencyHistogram FIND_BY_ID_TIMER = Metrics.jdbc("OrderRepository.findById");
+    private static final LatencyHistogram FIND_VERSION_TIMER = Metrics.jdbc("OrderRepository.findVersion");
+    private static final LatencyHistogram FIND_ALL_TIMER = Metrics.jdbc("OrderRepository.findAll");
+    private static final LatencyHistogram FIND_PAGE_TIMER = Metrics.jdbc("OrderRepository.findPage");
+    private static final LatencyHistogram STREAM_ALL_TIMER = Metrics.jdbc("OrderRepository.streamAll");
+    private static final LatencyHistogram UPDATE_TIMER = Metrics.jdbc("OrderRepository.update");
+    private static final LatencyHistogram ADJUST_TOTAL_TIMER = Metrics.jdbc("OrderRepository.adjustTotal");
+    private static final LatencyHistogram TRANSITION_TIMER = Metrics.jdbc("OrderRepository.transition");
+    private static final LatencyHistogram DELETE_BY_ID_TIMER = Metrics.jdbc("OrderRepository.deleteById");
+    private static final LatencyHistogram DELETE_RETURNING_TIMER = Metrics.jdbc("OrderRepository.deleteReturning");
+
+    private static final int STREAM_FETCH_SIZE = 256;
     
     public Order save(Order order) throws SQLException {
-        String sql = "INSERT INTO orders (customer_name, total_value, status, created_at) VALUES (?, ?, ?, ?)";
+        long start = System.nanoTime();
+
+        try {
+            String sql = "INSERT INTO orders (customer_name, total_cents, status, created_at) VALUES (?, ?, ?, ?)";
         
-        try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+            try (Connection conn = DatabaseConnection.getConnection();
+                 PreparedStatement stmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
             
-            stmt.setString(1, order.getCustomerName());
-            stmt.setDouble(2, order.getTotalValue());
-            stmt.setString(3, order.getStatus());
-            stmt.setTimestamp(4, Timestamp.valueOf(order.getCreatedAt()));
+                stmt.setString(1, order.getCustomerName());
+                stmt.setLong(2, order.getTotalCents());
+                stmt.setInt(3, order.getStatus().code());
+                stmt.setTimestamp(4, Timestamp.valueOf(order.getCreatedAt()));
             
-            int affectedRows = stmt.executeUpdate();
+                int affectedRows = stmt.executeUpdate();
             
-            if (affectedRows == 0) {
-                throw new SQLException("Falha ao criar pedido");
-            }
+                if (affectedRows == 0) {
+                    throw new SQLException("Falha ao criar pedido");
+                }
             
-            try (ResultSet generatedKeys = stmt.getGeneratedKeys()) {
-                if (generatedKeys.next()) {
-                    order.setId(generatedKeys.getLong(1));
+                try (ResultSet generatedKeys = stmt.getGeneratedKeys()) {
+                    if (generatedKeys.next()) {
+                        order.setId(generatedKeys.getLong(1));
+                    }
                 }
-            }
             
-            System.out.println("✅ Pedido criado: " + order.getId());
-            return order;
+                LOG.info("Pedido criado", "orderId", order.getId());
+                return order;
+            }
+        } finally {
+            SAVE_TIMER.recordSince(start);
         }
     }
     
     public Optional<Order> findById(Long id) throws SQLException {
-        String sql = "SELECT * FROM orders WHERE id = ?";
+        long start = System.nanoTime();
+
+        try {
+            String sql = "SELECT * FROM orders WHERE id = ?";
         
-        try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            try (Connection conn = DatabaseConnection.getConnection();
+                 PreparedStatement stmt = conn.prepareStatement(sql)) {
             
-            stmt.setLong(1, id);
-            ResultSet rs = stmt.executeQuery();
+                stmt.setLong(1, id);
+                ResultSet rs = stmt.executeQuery();
             
-            if (rs.next()) {
-                Order order = mapResultSetToOrder(rs);
-                return Optional.of(order);
-            }
+                if (rs.next()) {
+                    Order order = mapResultSetToOrder(rs);
+                    return Optional.of(order);
+                }
             
-            return Optional.empty();
+                return Optional.empty();
+            }
+        } finally {
+            FIND_BY_ID_TIMER.recordSince(start);
+        }
+    }
+    
+    /**
+     * Lê só a versão do pedido, sem montar a entidade: é o que a requisição
+     * condicional (If-None-Match) precisa para responder 304.
+     */
+    public OptionalLong findVersion(Long id) throws SQLException {
+        long start = System.nanoTime();
+
+        try {
+            String sql = "SELECT version FROM orders WHERE id = ?";
+
+            try (Connection conn = DatabaseConnection.getConnection();
+                 PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+                stmt.setLong(1, id);
+
+                try (ResultSet rs = stmt.executeQuery()) {
+                    return rs.next() ? OptionalLong.of(rs.getLong(1)) : OptionalLong.empty();
+                }
+            }
+        } finally {
+            FIND_VERSION_TIMER.recordSince(start);
         }
     }
     
     public List<Order> findAll() throws SQLException {
-        String sql = "SELECT * FROM orders ORDER BY created_at DESC";
-        List<Order> orders = new ArrayList<>();
+        long start = System.nanoTime();
+
+        try {
+            String sql = "SELECT * FROM orders ORDER BY created_at DESC";
+            List<Order> orders = new ArrayList<>();
         
-        try (Connection conn = DatabaseConnection.getConnection();
-             Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
+            try (Connection conn = DatabaseConnection.getConnection();
+                 Statement stmt = conn.createStatement();
+                 ResultSet rs = stmt.executeQuery(sql)) {
             
-            while (rs.next()) {
-                orders.add(mapResultSetToOrder(rs));
+                while (rs.next()) {
+                    orders.add(mapResultSetToOrder(rs));
+                }
             }
-        }
         
-        return orders;
+            return orders;
+        } finally {
+            FIND_ALL_TIMER.recordSince(start);
+        }
     }
     
+    /**
+     * Busca uma página ordenada por (created_at, id) decrescente.
+     * A continuação usa a última chave lida em vez de OFFSET, então o custo
+     * de cada página não cresce com a posição na listagem.
+     */
+    public OrderPage findPage(OrderQuery query) throws SQLException {
+        long start = System.nanoTime();
+
+        try {
+            StringBuilder sql = new StringBuilder("SELECT * FROM orders");
+            List<Object> params = new ArrayList<>();
+            appendFilters(query, sql, params);
+
+            sql.append(" ORDER BY created_at DESC, id DESC LIMIT ?");
+            params.add(query.limit() + 1);
+
+            List<Order> orders = new ArrayList<>(query.limit() + 1);
+
+            try (Connection conn = DatabaseConnection.getConnection();
+                 PreparedStatement stmt = conn.prepareStatement(sql.toString())) {
+
+                for (int i = 0; i < params.size(); i++) {
+                    stmt.setObject(i + 1, params.get(i));
+                }
+
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        orders.add(mapResultSetToOrder(rs));
+                    }
+                }
+            }
+
+            OrderCursor next = null;
+
+            if (orders.size() > query.limit()) {
+                orders.remove(orders.size() - 1);
+                Order last = orders.get(orders.size() - 1);
+                next = new OrderCursor(last.getCreatedAt(), last.getId());
+            }
+
+            return new OrderPage(orders, next);
+        } finally {
+            FIND_PAGE_TIMER.recordSince(start);
+        }
+    }
+
+    /**
+     * Percorre todos os pedidos que atendem aos filtros (o limit é ignorado),
+     * entregando linha a linha ao callback. Com LAZY_QUERY_EXECUTION o H2 não
+     * materializa o resultado, então a memória não cresce com a quantidade de linhas.
+     */
+    public void streamAll(OrderQuery query, RowCallback<Order> callback) throws SQLException, IOException {
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            streamAll(conn, query, callback);
+        }
+    }
+
+    /**
+     * Streaming numa conexão já aberta: o callback pode fazer outras consultas
+     * nela (ex.: carregar os itens de um bloco de pedidos) sem pedir uma
+     * segunda conexão ao pool enquanto segura esta.
+     */
+    public void streamAll(Connection conn, OrderQuery query, RowCallback<Order> callback) throws SQLException, IOException {
+        long start = System.nanoTime();
+
+        try {
+            StringBuilder sql = new StringBuilder("SELECT * FROM orders");
+            List<Object> params = new ArrayList<>();
+            appendFilters(query, sql, params);
+            sql.append(" ORDER BY created_at DESC, id DESC");
+
+            try (Statement lazy = conn.createStatement()) {
+                lazy.execute("SET LAZY_QUERY_EXECUTION TRUE");
+            }
+
+            try (PreparedStatement stmt = conn.prepareStatement(sql.toString())) {
+                stmt.setFetchSize(STREAM_FETCH_SIZE);
+
+                for (int i = 0; i < params.size(); i++) {
+                    stmt.setObject(i + 1, params.get(i));
+                }
+
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        callback.accept(mapResultSetToOrder(rs));
+                    }
+                }
+            } finally {
+                try (Statement lazy = conn.createStatement()) {
+                    lazy.execute("SET LAZY_QUERY_EXECUTION FALSE");
+                }
+            }
+        } finally {
+            STREAM_ALL_TIMER.recordSince(start);
+        }
+    }
+
+    private void appendFilters(OrderQuery query, StringBuilder sql, List<Object> params) {
+        sql.append(" WHERE 1 = 1");
+
+        if (query.status() != null) {
+            sql.append(" AND status = ?");
+            params.add(query.status().code());
+        }
+
+        if (query.customerName() != null) {
+            sql.append(" AND customer_name = ?");
+            params.add(query.customerName());
+        }
+
+        if (query.createdFrom() != null) {
+            sql.append(" AND created_at >= ?");
+            params.add(Timestamp.valueOf(query.createdFrom()));
+        }
+
+        if (query.createdTo() != null) {
+            sql.append(" AND created_at < ?");
+            params.add(Timestamp.valueOf(query.createdTo()));
+        }
+
+        if (query.after() != null) {
+            Timestamp afterCreatedAt = Timestamp.valueOf(query.after().createdAt());
+            sql.append(" AND created_at <= ? AND (created_at < ? OR id < ?)");
+            params.add(afterCreatedAt);
+            params.add(afterCreatedAt);
+            params.add(query.after().id());
+        }
+    }
+
     public Order update(Order order) throws SQLException {
-        String sql = "UPDATE orders SET customer_name = ?, total_value = ?, status = ? WHERE id = ?";
+        long start = System.nanoTime();
+
+        try {
+            String sql = "UPDATE orders SET customer_name = ?, total_cents = ?, status = ?, version = version + 1 WHERE id = ?";
         
-        try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            try (Connection conn = DatabaseConnection.getConnection();
+                 PreparedStatement stmt = conn.prepareStatement(sql)) {
             
-            stmt.setString(1, order.getCustomerName());
-            stmt.setDouble(2, order.getTotalValue());
-            stmt.setString(3, order.getStatus());
-            stmt.setLong(4, order.getId());
+                stmt.setString(1, order.getCustomerName());
+                stmt.setLong(2, order.getTotalCents());
+                stmt.setInt(3, order.getStatus().code());
+                stmt.setLong(4, order.getId());
             
-            int affectedRows = stmt.executeUpdate();
+                int affectedRows = stmt.executeUpdate();
             
-            if (affectedRows == 0) {
-                throw new SQLException("Pedido não encontrado: " + order.getId());
-            }
+                if (affectedRows == 0) {
+                    throw new NotFoundException("Pedido não encontrado: " + order.getId());
+                }
             
-            System.out.println("✅ Pedido atualizado: " + order.getId());
-            return order;
+                LOG.info("Pedido atualizado", "orderId", order.getId());
+                return order;
+            }
+        } finally {
+            UPDATE_TIMER.recordSince(start);
         }
     }
     
+    /**
+     * Soma {@code deltaCents} ao total do pedido de forma atômica no banco
+     * (total_cents = total_cents + ?), sem ler e regravar a linha inteira.
+     * Como toda alteração de itens passa por aqui, a versão do pedido sobe junto.
+     *
+     * @return o pedido já atualizado, ou vazio se ele não existe
+     */
+    public Optional<Order> adjustTotal(Connection conn, Long orderId, long deltaCents) throws SQLException {
+        long start = System.nanoTime();
+
+        try {
+            String sql = "SELECT * FROM FINAL TABLE (UPDATE orders SET total_cents = total_cents + ?, version = version + 1 WHERE id = ?)";
+
+            try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                stmt.setLong(1, deltaCents);
+                stmt.setLong(2, orderId);
+
+                try (ResultSet rs = stmt.executeQuery()) {
+                    if (rs.next()) {
+                        return Optional.of(mapResultSetToOrder(rs));
+                    }
+                }
+            }
+
+            return Optional.empty();
+        } finally {
+            ADJUST_TOTAL_TIMER.recordSince(start);
+        }
+    }
+    
+    /**
+     * Troca o status numa única instrução condicional: a linha só muda se o
+     * status atual for uma origem permitida para {@code target} (e, com
+     * {@code requireItems}, se o pedido tiver itens). Duas confirmações
+     * concorrentes não passam ambas, e não há SELECT antes do UPDATE.
+     *
+     * @return o pedido atualizado, ou vazio se ele não existe ou a transição não se aplica
+     */
+    public Optional<Order> transition(Long id, OrderStatus target, boolean requireItems) throws SQLException {
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            return transition(conn, id, target, requireItems);
+        }
+    }
+
+    public Optional<Order> transition(Connection conn, Long id, OrderStatus target, boolean requireItems) throws SQLException {
+        long start = System.nanoTime();
+
+        try {
+            Set<OrderStatus> sources = target.allowedSources();
+
+            if (sources.isEmpty()) {
+                return Optional.empty();
+            }
+
+            StringBuilder sql = new StringBuilder(
+                    "SELECT * FROM FINAL TABLE (UPDATE orders SET status = ?, version = version + 1 WHERE id = ? AND status IN (");
+            for (int i = 0; i < sources.size(); i++) {
+                sql.append(i == 0 ? "?" : ", ?");
+            }
+            sql.append(')');
+
+            if (requireItems) {
+                sql.append(" AND EXISTS (SELECT 1 FROM order_items i WHERE i.order_id = orders.id)");
+            }
+            sql.append(')');
+
+            try (PreparedStatement stmt = conn.prepareStatement(sql.toString())) {
+                int index = 1;
+                stmt.setInt(index++, target.code());
+                stmt.setLong(index++, id);
+                for (OrderStatus source : sources) {
+                    stmt.setInt(index++, source.code());
+                }
+
+                try (ResultSet rs = stmt.executeQuery()) {
+                    if (rs.next()) {
+                        LOG.info("Status do pedido alterado", "orderId", id, "status", target);
+                        return Optional.of(mapResultSetToOrder(rs));
+                    }
+                }
+            }
+
+            return Optional.empty();
+        } finally {
+            TRANSITION_TIMER.recordSince(start);
+        }
+    }
+
+    /**
+     * Remove o pedido e devolve como ele estava (com a versão final), ou
+     * vazio se ele não existe.
+     */
+    public Optional<Order> deleteReturning(Connection conn, Long id) throws SQLException {
+        long start = System.nanoTime();
+
+        try {
+            String sql = "SELECT * FROM OLD TABLE (DELETE FROM orders WHERE id = ?)";
+
+            try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                stmt.setLong(1, id);
+
+                try (ResultSet rs = stmt.executeQuery()) {
+                    if (rs.next()) {
+                        LOG.info("Pedido deletado", "orderId", id);
+                        return Optional.of(mapResultSetToOrder(rs));
+                    }
+                }
+            }
+
+            return Optional.empty();
+        } finally {
+            DELETE_RETURNING_TIMER.recordSince(start);
+        }
+    }
+
     public void deleteById(Long id) throws SQLException {
-        String sql = "DELETE FROM orders WHERE id = ?";
+        long start = System.nanoTime();
+
+        try {
+            String sql = "DELETE FROM orders WHERE id = ?";
         
-        try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            try (Connection conn = DatabaseConnection.getConnection();
+                 PreparedStatement stmt = conn.prepareStatement(sql)) {
             
-            stmt.setLong(1, id);
-            int affectedRows = stmt.executeUpdate();
+                stmt.setLong(1, id);
+                int affectedRows = stmt.executeUpdate();
             
-            if (affectedRows == 0) {
-                throw new SQLException("Pedido não encontrado: " + id);
-            }
+                if (affectedRows == 0) {
+                    throw new NotFoundException("Pedido não encontrado: " + id);
+                }
             
-            System.out.println("❌ Pedido deletado: " + id);
+                LOG.info("Pedido deletado", "orderId", id);
+            }
+        } finally {
+            DELETE_BY_ID_TIMER.recordSince(start);
         }
     }
     
@@ -115,9 +437,10 @@ public class OrderRepository {
         Order order = new Order();
         order.setId(rs.getLong("id"));
         order.setCustomerName(rs.getString("customer_name"));
-        order.setTotalValue(rs.getDouble("total_value"));
-        order.setStatus(rs.getString("status"));
+        order.setTotalCents(rs.getLong("total_cents"));
+        order.setStatus(OrderStatus.fromCode(rs.getInt("status")));
         order.setCreatedAt(rs.getTimestamp("created_at").toLocalDateTime());
+        order.setVersion(rs.getLong("version"));
         return order;
     }
 }
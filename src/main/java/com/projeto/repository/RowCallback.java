@@ -0,0 +1,13 @@
+package com.projeto.repository;
+
+import java.io.IOException;
+import java.sql.SQLException;
+
+/**
+ * Recebe cada linha de uma consulta em streaming, sem acumular o resultado.
+ */
+@FunctionalInterface
+public interface RowCallback<T> {
+
+    void accept(T row) throws SQLException, IOException;
+}
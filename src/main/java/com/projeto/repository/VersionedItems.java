@@ -0,0 +1,11 @@
+package com.projeto.repository;
+
+import com.projeto.model.OrderItem;
+
+import java.util.List;
+
+/**
+ * Itens de um pedido junto com a versão do pedido lida na mesma consulta.
+ */
+public record VersionedItems(long orderVersion, List<OrderItem> items) {
+}
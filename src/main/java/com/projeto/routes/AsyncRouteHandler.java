@@ -0,0 +1,15 @@
+package com.projeto.routes;
+
+import com.sun.net.httpserver.HttpExchange;
+
+import java.util.concurrent.CompletionStage;
+
+/**
+ * Handler que pode terminar depois de retornar: o Router só fecha a troca,
+ * trata erros e registra as métricas quando o estágio devolvido completa.
+ */
+@FunctionalInterface
+public interface AsyncRouteHandler {
+
+    CompletionStage<?> handle(HttpExchange exchange, PathParams params) throws Exception;
+}
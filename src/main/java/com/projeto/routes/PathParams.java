@@ -0,0 +1,42 @@
+package com.projeto.routes;
+
+import com.projeto.http.HttpException;
+
+/**
+ * Parâmetros extraídos do caminho ({id} em /orders/{id}).
+ * Guardados em arrays pequenos porque cada rota tem no máximo um ou dois.
+ */
+public final class PathParams {
+
+    static final PathParams EMPTY = new PathParams(new String[0], new String[0], 0);
+
+    private final String[] names;
+    private final String[] values;
+    private final int size;
+
+    PathParams(String[] names, String[] values, int size) {
+        this.names = names;
+        this.values = values;
+        this.size = size;
+    }
+
+    public String get(String name) {
+        for (int i = 0; i < size; i++) {
+            if (names[i].equals(name)) {
+                return values[i];
+            }
+        }
+
+        throw new IllegalArgumentException("Parâmetro de rota desconhecido: " + name);
+    }
+
+    public long getLong(String name) {
+        String value = get(name);
+
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            throw new HttpException(400, "ID inválido: " + value);
+        }
+    }
+}
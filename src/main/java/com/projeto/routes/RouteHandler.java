@@ -0,0 +1,9 @@
+package com.projeto.routes;
+
+import com.sun.net.httpserver.HttpExchange;
+
+@FunctionalInterface
+public interface RouteHandler {
+
+    void handle(HttpExchange exchange, PathParams params) throws Exception;
+}
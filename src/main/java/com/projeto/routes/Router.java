@@ -0,0 +1,314 @@
+package com.projeto.routes;
+
+import com.projeto.http.AsyncResponses;
+import com.projeto.http.HttpException;
+import com.projeto.http.HttpResponses;
+import com.projeto.logging.Log;
+import com.projeto.logging.Logger;
+import com.projeto.metrics.Metrics;
+import com.projeto.metrics.RouteMetrics;
+import com.projeto.repository.NotFoundException;
+import com.projeto.server.BoundedExecutor;
+import com.sun.net.httpserver.Headers;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Roteador por segmentos do caminho.
+ *
+ * As rotas são declaradas uma vez e montadas numa árvore (um nó por segmento),
+ * então cada requisição percorre o caminho uma única vez, sem regex. Segmentos
+ * literais têm prioridade sobre parâmetros ({id}). CORS, OPTIONS, 404, 405, o
+ * tratamento de erros e as métricas por rota ficam centralizados aqui.
+ *
+ * Handlers assíncronos ({@link AsyncRouteHandler}) liberam a thread HTTP ao
+ * retornar; a troca é encerrada, e a vaga do {@link BoundedExecutor}
+ * devolvida, quando o estágio devolvido completa.
+ */
+public class Router implements HttpHandler {
+
+    private static final Logger LOG = Log.getLogger(Router.class);
+
+    private static final int MAX_SEGMENTS = 16;
+
+    private final Node root = new Node();
+
+    public Router get(String pattern, RouteHandler handler) {
+        return add("GET", pattern, handler);
+    }
+
+    public Router post(String pattern, RouteHandler handler) {
+        return add("POST", pattern, handler);
+    }
+
+    public Router put(String pattern, RouteHandler handler) {
+        return add("PUT", pattern, handler);
+    }
+
+    public Router delete(String pattern, RouteHandler handler) {
+        return add("DELETE", pattern, handler);
+    }
+
+    public Router getAsync(String pattern, AsyncRouteHandler handler) {
+        return addAsync("GET", pattern, handler);
+    }
+
+    public Router postAsync(String pattern, AsyncRouteHandler handler) {
+        return addAsync("POST", pattern, handler);
+    }
+
+    public Router putAsync(String pattern, AsyncRouteHandler handler) {
+        return addAsync("PUT", pattern, handler);
+    }
+
+    public Router deleteAsync(String pattern, AsyncRouteHandler handler) {
+        return addAsync("DELETE", pattern, handler);
+    }
+
+    public Router add(String method, String pattern, RouteHandler handler) {
+        return addAsync(method, pattern, (exchange, params) -> {
+            handler.handle(exchange, params);
+            return AsyncResponses.done();
+        });
+    }
+
+    public synchronized Router addAsync(String method, String pattern, AsyncRouteHandler handler) {
+        Node node = root;
+
+        for (String segment : pattern.split("/")) {
+            if (segment.isEmpty()) {
+                continue;
+            }
+
+            if (segment.startsWith("{") && segment.endsWith("}")) {
+                String name = segment.substring(1, segment.length() - 1);
+
+                if (node.param == null) {
+                    node.param = new Node();
+                    node.paramName = name;
+                } else if (!node.paramName.equals(name)) {
+                    throw new IllegalStateException("Parâmetros com nomes diferentes na mesma posição: "
+                            + node.paramName + " e " + name);
+                }
+
+                node = node.param;
+            } else {
+                node = node.literals.computeIfAbsent(segment, k -> new Node());
+            }
+        }
+
+        if (node.handlers.containsKey(method)) {
+            throw new IllegalStateException("Rota duplicada: " + method + " " + pattern);
+        }
+
+        node.handlers.put(method, timed(handler, Metrics.route(method, pattern)));
+
+        node.allow = String.join(", ", node.handlers.keySet()) + ", OPTIONS";
+        return this;
+    }
+
+    /**
+     * Mede a rota em volta do handler, até o estágio devolvido completar. O
+     * status contado é o que foi enviado, ou o que {@link #handle} vai enviar
+     * para a exceção.
+     */
+    private static AsyncRouteHandler timed(AsyncRouteHandler handler, RouteMetrics metrics) {
+        return (exchange, params) -> {
+            long start = System.nanoTime();
+            CompletionStage<?> pending;
+
+            try {
+                pending = handler.handle(exchange, params);
+            } catch (Exception e) {
+                pending = CompletableFuture.failedFuture(e);
+            }
+
+            return pending.whenComplete((result, error) -> {
+                int status = exchange.getResponseCode();
+
+                if (status == -1) {
+                    status = error != null ? statusFor(AsyncResponses.unwrap(error)) : 500;
+                }
+
+                metrics.record(status, System.nanoTime() - start);
+            });
+        };
+    }
+
+    @Override
+    public void handle(HttpExchange exchange) throws IOException {
+        Metrics.requestStarted();
+        Runnable releasePermit = BoundedExecutor.holdPermit();
+        CompletionStage<?> pending;
+
+        try {
+            pending = dispatch(exchange);
+        } catch (Exception e) {
+            pending = CompletableFuture.failedFuture(e);
+        }
+
+        pending.whenComplete((result, error) -> {
+            try {
+                if (error != null) {
+                    fail(exchange, AsyncResponses.unwrap(error));
+                }
+            } finally {
+                exchange.close();
+                Metrics.requestFinished();
+                releasePermit.run();
+            }
+        });
+    }
+
+    private static int statusFor(Throwable error) {
+        if (error instanceof HttpException e) {
+            return e.getStatus();
+        }
+
+        if (error instanceof NotFoundException) {
+            return 404;
+        }
+
+        if (error instanceof RejectedExecutionException) {
+            return 503;
+        }
+
+        // Entrada inválida que escapou da validação dos controllers: status
+        // ou valor mal formado, query string mal codificada, total que estoura.
+        if (error instanceof IllegalArgumentException || error instanceof ArithmeticException) {
+            return 400;
+        }
+
+        return 500;
+    }
+
+    private static String messageFor(int status, Throwable error) {
+        if (status == 503) {
+            return "Servidor sobrecarregado, tente novamente";
+        }
+
+        if (error instanceof ArithmeticException) {
+            return "Valor fora do limite suportado";
+        }
+
+        return error.getMessage();
+    }
+
+    private void fail(HttpExchange exchange, Throwable error) {
+        int status = statusFor(error);
+
+        if (status == 500) {
+            LOG.error("Erro não tratado", error,
+                    "method", exchange.getRequestMethod(), "path", exchange.getRequestURI().getPath());
+        }
+
+        if (status == 503) {
+            exchange.getResponseHeaders().set("Retry-After", "1");
+        }
+
+        try {
+            sendErrorIfPossible(exchange, status, messageFor(status, error));
+        } catch (IOException e) {
+            LOG.debug("Falha ao enviar erro", "path", exchange.getRequestURI().getPath(), "error", e.getMessage());
+        }
+    }
+
+    /**
+     * Se a resposta já começou (streaming), não há como trocar o status.
+     */
+    private void sendErrorIfPossible(HttpExchange exchange, int status, String message) throws IOException {
+        if (exchange.getResponseCode() == -1) {
+            HttpResponses.sendError(exchange, status, message);
+        }
+    }
+
+    private CompletionStage<?> dispatch(HttpExchange exchange) throws Exception {
+        String path = exchange.getRequestURI().getPath();
+        String[] names = null;
+        String[] values = null;
+        int paramCount = 0;
+        Node node = root;
+
+        int length = path.length();
+        int start = 0;
+
+        while (node != null && start < length) {
+            int end = path.indexOf('/', start);
+            if (end < 0) {
+                end = length;
+            }
+
+            if (end > start) {
+                String segment = path.substring(start, end);
+                Node next = node.literals.get(segment);
+
+                if (next == null && node.param != null) {
+                    if (names == null) {
+                        names = new String[MAX_SEGMENTS];
+                        values = new String[MAX_SEGMENTS];
+                    }
+
+                    if (paramCount == MAX_SEGMENTS) {
+                        throw new HttpException(404, "Endpoint não encontrado");
+                    }
+
+                    names[paramCount] = node.paramName;
+                    values[paramCount++] = segment;
+                    next = node.param;
+                }
+
+                node = next;
+            }
+
+            start = end + 1;
+        }
+
+        Headers headers = exchange.getResponseHeaders();
+        headers.set("Access-Control-Allow-Origin", "*");
+        headers.set("Access-Control-Allow-Headers", "Content-Type, If-None-Match, Idempotency-Key, Last-Event-ID");
+        headers.set("Access-Control-Expose-Headers", "ETag, X-Next-Cursor, Idempotent-Replayed");
+
+        if (node == null || node.handlers.isEmpty()) {
+            HttpResponses.sendError(exchange, 404, "Endpoint não encontrado");
+            Metrics.unmatched().record(404, 0);
+            return AsyncResponses.done();
+        }
+
+        headers.set("Access-Control-Allow-Methods", node.allow);
+        String method = exchange.getRequestMethod();
+
+        if ("OPTIONS".equals(method)) {
+            headers.set("Allow", node.allow);
+            exchange.sendResponseHeaders(200, -1);
+            return AsyncResponses.done();
+        }
+
+        AsyncRouteHandler handler = node.handlers.get(method);
+
+        if (handler == null) {
+            headers.set("Allow", node.allow);
+            HttpResponses.sendError(exchange, 405, "Method not allowed");
+            Metrics.unmatched().record(405, 0);
+            return AsyncResponses.done();
+        }
+
+        PathParams params = paramCount == 0 ? PathParams.EMPTY : new PathParams(names, values, paramCount);
+        return handler.handle(exchange, params);
+    }
+
+    private static final class Node {
+        private final Map<String, Node> literals = new HashMap<>();
+        private final Map<String, AsyncRouteHandler> handlers = new LinkedHashMap<>();
+        private Node param;
+        private String paramName;
+        private String allow;
+    }
+}
@@ -1,32 +1,96 @@
 package com.projeto.routes;
 
+import com.projeto.changes.ChangeLog;
+import com.projeto.config.AppContext;
+import com.projeto.controller.ChangeStreamController;
 import com.projeto.controller.OrderController;
 import com.projeto.controller.OrderItemController;
+import com.projeto.database.DatabaseConnection;
+import com.projeto.database.PoolStats;
+import com.projeto.database.StorageStats;
+import com.projeto.http.HttpResponses;
+import com.projeto.idempotency.IdempotencyStore;
+import com.projeto.idempotency.IdempotentHandler;
+import com.projeto.logging.Log;
+import com.projeto.logging.Logger;
+import com.projeto.metrics.PrometheusFormat;
+import com.projeto.server.OverloadFilter;
+import com.projeto.server.ServerExecutor;
 import com.sun.net.httpserver.HttpServer;
 
-public class Routes {
+import java.sql.SQLException;
+import java.util.Map;
 
-    public static void register(HttpServer server) {
+public class Routes {
 
-        server.createContext("/orders", exchange -> {
-            String path = exchange.getRequestURI().getPath();
+    private static final Logger LOG = Log.getLogger(Routes.class);
 
-            if (path.matches("^/orders/\\d+/items$")) {
-                new OrderItemController().handle(exchange);
-                return;
-            }
+    public static void register(HttpServer server, ServerExecutor executor, AppContext context) {
+        server.createContext("/", build(executor, context)).getFilters().add(OverloadFilter.INSTANCE);
+    }
 
-            new OrderController().handle(exchange);
-        });
+    /**
+     * Monta a tabela de rotas sem registrá-la num servidor (usado também pelos benchmarks).
+     */
+    public static Router build(ServerExecutor executor, AppContext context) {
+        OrderController orderController = context.getOrderController();
+        OrderItemController orderItemController = context.getOrderItemController();
+        IdempotencyStore idempotency = context.getIdempotencyStore();
+        ChangeStreamController changeStream = context.getChangeStreamController();
+        ChangeLog changes = context.getChangeLog();
 
-        server.createContext("/items", new OrderItemController());
+        return new Router()
+                .getAsync("/orders", orderController::handleList)
+                .postAsync("/orders", new IdempotentHandler(orderController::handlePost, idempotency))
+                .get("/orders/stream", changeStream::handleStream)
+                .get("/orders/search", context.getSearchController()::handleSearch)
+                .getAsync("/orders/{id}", orderController::handleGetById)
+                .putAsync("/orders/{id}", orderController::handlePut)
+                .deleteAsync("/orders/{id}", orderController::handleDelete)
+                .getAsync("/orders/{id}/items", orderItemController::handleGet)
+                .postAsync("/orders/{id}/items", new IdempotentHandler(orderItemController::handlePost, idempotency))
+                .postAsync("/orders/{id}/items/bulk", orderItemController::handleBulkPost)
+                .deleteAsync("/items/{id}", orderItemController::handleDelete)
+                .get("/reports", context.getReportController()::handleReport)
+                .post("/reports/rebuild", context.getReportController()::handleRebuild)
+                .get("/health", (exchange, params) -> {
+                    PoolStats pool = DatabaseConnection.getPoolStats();
+                    StorageStats storage = DatabaseConnection.getStorageStats();
+                    String response = "{\"status\": \"OK\", \"message\": \"API está funcionando!\"" +
+                            (pool != null ? ", \"pool\": " + pool.toJson() : "") +
+                            ", \"cache\": " + context.getOrderCache().stats().toJson() +
+                            (storage != null ? ", \"storage\": " + storage.toJson() : "") +
+                            ", \"idempotency\": {\"size\": " + idempotency.size() +
+                            ", \"replays\": " + idempotency.replays() +
+                            ", \"conflicts\": " + idempotency.conflicts() + "}" +
+                            ", \"changes\": {\"lastSequence\": " + changes.lastSequence() +
+                            ", \"capacity\": " + changes.capacity() +
+                            ", \"clients\": " + changeStream.clients() + "}" +
+                            ", \"search\": " + context.getSearchIndex().stats().toJson() +
+                            ", \"reports\": {\"orders\": " + context.getSalesRollup().orders() + "}" +
+                            ", \"dbExecutor\": " + context.getDatabaseExecutor().stats().toJson() +
+                            (executor != null ? ", \"server\": {\"inFlight\": " + executor.inFlight() +
+                                    ", \"rejected\": " + executor.rejected() + "}" : "") + "}";
+                    HttpResponses.sendJson(exchange, 200, response);
+                })
+                .get("/metrics", (exchange, params) -> HttpResponses.sendText(exchange, 200,
+                        PrometheusFormat.CONTENT_TYPE,
+                        PrometheusFormat.render(executor, DatabaseConnection.getPoolStats(),
+                                context.getDatabaseExecutor().stats(),
+                                context.getOrderCache().stats(),
+                                storeCounters())));
+    }
 
-        server.createContext("/health", exchange -> {
-            String response = "{\"status\": \"OK\", \"message\": \"API está funcionando!\"}";
-            exchange.getResponseHeaders().set("Content-Type", "application/json");
-            exchange.sendResponseHeaders(200, response.getBytes().length);
-            exchange.getResponseBody().write(response.getBytes());
-            exchange.close();
-        });
+    /**
+     * Os contadores do MVStore exigem uma conexão; com o pool esgotado, o
+     * /metrics sai na hora sem eles, em vez de esperar uma conexão.
+     */
+    private static Map<String, String> storeCounters() {
+        try {
+            return DatabaseConnection.getStoreCounters();
+        } catch (SQLException e) {
+            LOG.debug("Contadores do MVStore indisponíveis", "error", e.getMessage());
+            return null;
+        }
     }
 }
@@ -0,0 +1,33 @@
+package com.projeto.search;
+
+import java.util.Locale;
+
+/**
+ * Onde procurar os termos: nome do cliente, produtos dos itens ou ambos.
+ */
+public enum SearchField {
+
+    ALL,
+    CUSTOMER,
+    PRODUCT;
+
+    public boolean includesCustomer() {
+        return this != PRODUCT;
+    }
+
+    public boolean includesProduct() {
+        return this != CUSTOMER;
+    }
+
+    public static SearchField parse(String value) {
+        if (value == null || value.isBlank()) {
+            return ALL;
+        }
+
+        try {
+            return valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Campo de busca inválido: " + value + " (use all, customer ou product)");
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package com.projeto.search;
+
+import com.projeto.model.OrderStatus;
+
+import java.util.List;
+
+/**
+ * Pedido encontrado, montado só com o que está no índice.
+ *
+ * @param products produtos do pedido que casaram com a busca (vazio quando só o cliente casou)
+ */
+public record SearchHit(long orderId, String customerName, OrderStatus status, List<String> products) {
+}
@@ -0,0 +1,435 @@
+package com.projeto.search;
+
+import com.projeto.changes.ChangeListener;
+import com.projeto.changes.ChangeLog;
+import com.projeto.changes.OrderChange;
+import com.projeto.logging.Log;
+import com.projeto.logging.Logger;
+import com.projeto.model.Order;
+import com.projeto.model.OrderItem;
+import com.projeto.model.OrderStatus;
+import com.projeto.repository.OrderItemRepository;
+import com.projeto.repository.OrderQuery;
+import com.projeto.repository.OrderRepository;
+
+import java.io.IOException;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Índice invertido em memória sobre {@code Order.customerName} e
+ * {@code OrderItem.product}, para buscar pedidos sem varrer a tabela.
+ *
+ * Os termos ficam em TreeMaps (termo → ids), então um prefixo é um
+ * {@code subMap} e não uma varredura. A busca parte do termo mais seletivo da
+ * consulta e confere os demais no próprio pedido (índice direto), exigindo
+ * todos os termos (AND).
+ *
+ * É carregado do banco por {@link #rebuild} e depois mantido pelas mudanças
+ * publicadas no {@link ChangeLog}. Eventos de itens de um pedido que o índice
+ * não conhece (por exemplo, já removido) são ignorados. Como as mudanças podem
+ * chegar fora da ordem de commit, o status só é trocado por uma versão mais
+ * nova do pedido, e um item removido não volta com uma inclusão atrasada.
+ */
+public class SearchIndex implements ChangeListener {
+
+    private static final Logger LOG = Log.getLogger(SearchIndex.class);
+
+    private static final int MAX_TERMS = 10;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private Postings postings = new Postings();
+
+    @Override
+    public void onChange(OrderChange change) {
+        lock.writeLock().lock();
+
+        try {
+            postings.onChange(change);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * @param query termos separados por espaço; um termo terminado em {@code *} é prefixo
+     */
+    public SearchResult search(String query, SearchField field, int limit) {
+        List<QueryTerm> terms = parse(query);
+
+        lock.readLock().lock();
+
+        try {
+            return postings.search(terms, field, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Monta um índice novo a partir do banco e o coloca no lugar do atual,
+     * sem perder as mudanças feitas durante a leitura (ver {@link ChangeLog#rebuild}).
+     */
+    public void rebuild(OrderRepository orders, OrderItemRepository items, ChangeLog changes)
+            throws SQLException, IOException {
+        long start = System.nanoTime();
+
+        Postings fresh = changes.rebuild(() -> {
+            Postings loaded = new Postings();
+            orders.streamAll(OrderQuery.all(), loaded::putOrder);
+            items.streamAll(loaded::putItem);
+            return loaded;
+        }, this::replace);
+
+        LOG.info("Índice de busca carregado", "orders", fresh.orders.size(), "items", fresh.items.size(),
+                "ms", (System.nanoTime() - start) / 1_000_000);
+    }
+
+    public SearchStats stats() {
+        lock.readLock().lock();
+
+        try {
+            return new SearchStats(postings.orders.size(), postings.items.size(),
+                    postings.customerTerms.size(), postings.productTerms.size());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void replace(Postings fresh) {
+        lock.writeLock().lock();
+
+        try {
+            postings = fresh;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private static List<QueryTerm> parse(String query) {
+        List<QueryTerm> terms = new ArrayList<>();
+
+        if (query != null) {
+            for (String word : query.trim().split("\\s+")) {
+                boolean prefix = word.endsWith("*");
+                List<String> parts = SearchTerms.of(prefix ? word.substring(0, word.length() - 1) : word);
+
+                for (int i = 0; i < parts.size(); i++) {
+                    // "caf*" é prefixo; em "café-sol*" só a última parte é
+                    terms.add(new QueryTerm(parts.get(i), prefix && i == parts.size() - 1));
+                }
+            }
+        }
+
+        if (terms.isEmpty()) {
+            throw new IllegalArgumentException("Parâmetro 'q' deve ter ao menos um termo");
+        }
+
+        if (terms.size() > MAX_TERMS) {
+            throw new IllegalArgumentException("Máximo de " + MAX_TERMS + " termos por busca");
+        }
+
+        return terms;
+    }
+
+    private record QueryTerm(String text, boolean prefix) {
+
+        boolean matches(String term) {
+            return prefix ? term.startsWith(text) : term.equals(text);
+        }
+
+        Collection<Set<Long>> postings(TreeMap<String, Set<Long>> terms) {
+            if (!prefix) {
+                Set<Long> ids = terms.get(text);
+                return ids == null ? List.of() : List.of(ids);
+            }
+
+            SortedMap<String, Set<Long>> range = terms.subMap(text, text + Character.MAX_VALUE);
+            return range.values();
+        }
+    }
+
+    private static final class IndexedOrder {
+        private final String customerName;
+        private final List<String> terms;
+        private final Set<Long> itemIds = new LinkedHashSet<>();
+        private final Set<Long> deletedItemIds = new HashSet<>();
+        private OrderStatus status;
+        private long version;
+
+        private IndexedOrder(String customerName, OrderStatus status, long version) {
+            this.customerName = customerName;
+            this.terms = SearchTerms.of(customerName).stream().distinct().toList();
+            this.status = status;
+            this.version = version;
+        }
+    }
+
+    private record IndexedItem(long orderId, String product, List<String> terms) {
+    }
+
+    /**
+     * Estado do índice. Não é thread-safe: quem usa segura o lock do SearchIndex
+     * (ou é o único dono, durante a reconstrução).
+     */
+    private static final class Postings implements ChangeListener {
+
+        private final Map<Long, IndexedOrder> orders = new HashMap<>();
+        private final Map<Long, IndexedItem> items = new HashMap<>();
+        private final TreeMap<String, Set<Long>> customerTerms = new TreeMap<>();
+        private final TreeMap<String, Set<Long>> productTerms = new TreeMap<>();
+
+        @Override
+        public void onChange(OrderChange change) {
+            switch (change.type()) {
+                case ORDER_CREATED -> putOrder(change.order());
+                case STATUS_CHANGED -> updateStatus(change.order(), change.version());
+                case ITEMS_ADDED -> {
+                    updateStatus(change.order(), change.version());
+                    change.items().forEach(this::putItem);
+                }
+                case ITEM_DELETED -> {
+                    change.items().forEach(item -> removeItem(item.getOrderId(), item.getId()));
+                    updateStatus(change.order(), change.version());
+                }
+                case ORDER_DELETED -> removeOrder(change.orderId());
+            }
+        }
+
+        void putOrder(Order order) {
+            if (orders.containsKey(order.getId())) {
+                updateStatus(order, order.getVersion());
+                return;
+            }
+
+            IndexedOrder indexed = new IndexedOrder(order.getCustomerName(), order.getStatus(), order.getVersion());
+            orders.put(order.getId(), indexed);
+
+            for (String term : indexed.terms) {
+                customerTerms.computeIfAbsent(term, t -> new HashSet<>()).add(order.getId());
+            }
+        }
+
+        void updateStatus(Order order, long version) {
+            IndexedOrder indexed = order != null ? orders.get(order.getId()) : null;
+
+            if (indexed != null && version > indexed.version) {
+                indexed.status = order.getStatus();
+                indexed.version = version;
+            }
+        }
+
+        void putItem(OrderItem item) {
+            IndexedOrder order = orders.get(item.getOrderId());
+
+            if (order == null || items.containsKey(item.getId()) || order.deletedItemIds.contains(item.getId())) {
+                return;
+            }
+
+            IndexedItem indexed = new IndexedItem(item.getOrderId(), item.getProduct(),
+                    SearchTerms.of(item.getProduct()).stream().distinct().toList());
+            items.put(item.getId(), indexed);
+            order.itemIds.add(item.getId());
+
+            for (String term : indexed.terms()) {
+                productTerms.computeIfAbsent(term, t -> new HashSet<>()).add(item.getId());
+            }
+        }
+
+        void removeItem(long orderId, long itemId) {
+            IndexedOrder order = orders.get(orderId);
+
+            if (order == null) {
+                return;
+            }
+
+            order.deletedItemIds.add(itemId);
+            IndexedItem item = items.remove(itemId);
+
+            if (item == null) {
+                return;
+            }
+
+            order.itemIds.remove(itemId);
+
+            for (String term : item.terms()) {
+                removePosting(productTerms, term, itemId);
+            }
+        }
+
+        void removeOrder(long orderId) {
+            IndexedOrder order = orders.get(orderId);
+
+            if (order == null) {
+                return;
+            }
+
+            for (Long itemId : new ArrayList<>(order.itemIds)) {
+                removeItem(orderId, itemId);
+            }
+
+            orders.remove(orderId);
+
+            for (String term : order.terms) {
+                removePosting(customerTerms, term, orderId);
+            }
+        }
+
+        private static void removePosting(TreeMap<String, Set<Long>> terms, String term, long id) {
+            Set<Long> ids = terms.get(term);
+
+            if (ids != null && ids.remove(id) && ids.isEmpty()) {
+                terms.remove(term);
+            }
+        }
+
+        SearchResult search(List<QueryTerm> terms, SearchField field, int limit) {
+            QueryTerm seed = mostSelective(terms, field);
+            Set<Long> candidates = new HashSet<>();
+
+            if (field.includesCustomer()) {
+                for (Set<Long> orderIds : seed.postings(customerTerms)) {
+                    candidates.addAll(orderIds);
+                }
+            }
+
+            if (field.includesProduct()) {
+                for (Set<Long> itemIds : seed.postings(productTerms)) {
+                    for (Long itemId : itemIds) {
+                        candidates.add(items.get(itemId).orderId());
+                    }
+                }
+            }
+
+            long[] matched = new long[candidates.size()];
+            int count = 0;
+
+            for (Long orderId : candidates) {
+                if (matchesOthers(orders.get(orderId), terms, seed, field)) {
+                    matched[count++] = orderId;
+                }
+            }
+
+            // mais novos primeiro
+            Arrays.sort(matched, 0, count);
+            List<SearchHit> hits = new ArrayList<>(Math.min(limit, count));
+
+            for (int i = count - 1; i >= 0 && hits.size() < limit; i--) {
+                hits.add(hit(matched[i], terms, field));
+            }
+
+            return new SearchResult(count, hits);
+        }
+
+        /**
+         * Termo com menos ids nas listagens, para gerar o menor conjunto de candidatos.
+         */
+        private QueryTerm mostSelective(List<QueryTerm> terms, SearchField field) {
+            QueryTerm best = null;
+            long bestSize = Long.MAX_VALUE;
+
+            for (QueryTerm term : terms) {
+                long size = 0;
+
+                if (field.includesCustomer()) {
+                    for (Set<Long> ids : term.postings(customerTerms)) {
+                        size += ids.size();
+                    }
+                }
+
+                if (field.includesProduct()) {
+                    for (Set<Long> ids : term.postings(productTerms)) {
+                        size += ids.size();
+                    }
+                }
+
+                if (size < bestSize) {
+                    best = term;
+                    bestSize = size;
+                }
+            }
+
+            return best;
+        }
+
+        /**
+         * Os candidatos já casaram com {@code seed}; confere os outros termos.
+         */
+        private boolean matchesOthers(IndexedOrder order, List<QueryTerm> terms, QueryTerm seed, SearchField field) {
+            for (QueryTerm term : terms) {
+                if (term != seed && !matchesCustomer(order, term, field) && !matchesProduct(order, term, field)) {
+                    return false;
+                }
+            }
+
+            return true;
+        }
+
+        private boolean matchesCustomer(IndexedOrder order, QueryTerm term, SearchField field) {
+            if (field.includesCustomer()) {
+                for (String customerTerm : order.terms) {
+                    if (term.matches(customerTerm)) {
+                        return true;
+                    }
+                }
+            }
+
+            return false;
+        }
+
+        private boolean matchesProduct(IndexedOrder order, QueryTerm term, SearchField field) {
+            if (field.includesProduct()) {
+                for (Long itemId : order.itemIds) {
+                    for (String productTerm : items.get(itemId).terms()) {
+                        if (term.matches(productTerm)) {
+                            return true;
+                        }
+                    }
+                }
+            }
+
+            return false;
+        }
+
+        private List<String> matchingProducts(IndexedOrder order, QueryTerm term, SearchField field) {
+            List<String> products = new ArrayList<>();
+
+            if (field.includesProduct()) {
+                for (Long itemId : order.itemIds) {
+                    IndexedItem item = items.get(itemId);
+
+                    for (String productTerm : item.terms()) {
+                        if (term.matches(productTerm)) {
+                            products.add(item.product());
+                            break;
+                        }
+                    }
+                }
+            }
+
+            return products;
+        }
+
+        private SearchHit hit(long orderId, List<QueryTerm> terms, SearchField field) {
+            IndexedOrder order = orders.get(orderId);
+            Set<String> products = new LinkedHashSet<>();
+
+            for (QueryTerm term : terms) {
+                products.addAll(matchingProducts(order, term, field));
+            }
+
+            return new SearchHit(orderId, order.customerName, order.status, List.copyOf(products));
+        }
+    }
+}
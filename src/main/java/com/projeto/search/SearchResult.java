@@ -0,0 +1,9 @@
+package com.projeto.search;
+
+import java.util.List;
+
+/**
+ * @param total quantos pedidos casaram, antes do limit
+ */
+public record SearchResult(int total, List<SearchHit> hits) {
+}
@@ -0,0 +1,11 @@
+package com.projeto.search;
+
+public record SearchStats(int orders, int items, int customerTerms, int productTerms) {
+
+    public String toJson() {
+        return "{\"orders\": " + orders +
+                ", \"items\": " + items +
+                ", \"customerTerms\": " + customerTerms +
+                ", \"productTerms\": " + productTerms + "}";
+    }
+}
@@ -0,0 +1,42 @@
+package com.projeto.search;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Quebra textos em termos de busca: minúsculas, sem acentos e separados por
+ * qualquer caractere que não seja letra ou dígito ("Café-Solúvel" vira
+ * {@code [cafe, soluvel]}).
+ */
+public final class SearchTerms {
+
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private SearchTerms() {
+    }
+
+    public static List<String> of(String text) {
+        List<String> terms = new ArrayList<>();
+
+        if (text == null) {
+            return terms;
+        }
+
+        for (String term : SEPARATORS.split(normalize(text))) {
+            if (!term.isEmpty()) {
+                terms.add(term);
+            }
+        }
+
+        return terms;
+    }
+
+    static String normalize(String text) {
+        String decomposed = Normalizer.normalize(text, Normalizer.Form.NFD);
+        return MARKS.matcher(decomposed).replaceAll("").toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,159 @@
+package com.projeto.server;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Executor do HttpServer com limite de requisições em andamento.
+ *
+ * Quando o limite é atingido a requisição não entra na fila: ela é executada
+ * na própria thread do dispatcher com a marcação de sobrecarga, e o
+ * {@link OverloadFilter} responde 503 sem chegar ao controller.
+ *
+ * Handlers assíncronos terminam a troca em outra thread: com
+ * {@link #holdPermit()} a vaga só é devolvida quando a resposta é encerrada,
+ * e não quando a thread HTTP retorna.
+ */
+public class BoundedExecutor implements ServerExecutor {
+
+    private static final ThreadLocal<boolean[]> OVERLOADED = new ThreadLocal<>();
+    private static final ThreadLocal<Permit> CURRENT = new ThreadLocal<>();
+
+    private final String name;
+    private final ExecutorService delegate;
+    private final Semaphore permits;
+    private final int maxInFlight;
+    private final LongAdder rejected = new LongAdder();
+
+    public BoundedExecutor(String name, ExecutorService delegate, int maxInFlight) {
+        this.name = name;
+        this.delegate = delegate;
+        this.maxInFlight = maxInFlight;
+        this.permits = new Semaphore(maxInFlight);
+    }
+
+    /**
+     * Chamado pelo filtro; marca a requisição como rejeitada.
+     * Execuções sem requisição (conexão keep-alive fechada) não são contadas.
+     */
+    static boolean shed() {
+        boolean[] flag = OVERLOADED.get();
+
+        if (flag == null) {
+            return false;
+        }
+
+        flag[0] = true;
+        return true;
+    }
+
+    /**
+     * Mantém a vaga da execução atual depois que ela retornar; quem chama
+     * passa a ser responsável por rodar a ação devolvida ao encerrar a troca.
+     * Fora de uma execução do executor (modo {@code single}, requisição
+     * rejeitada) devolve uma ação vazia.
+     */
+    public static Runnable holdPermit() {
+        Permit permit = CURRENT.get();
+
+        if (permit == null) {
+            return () -> {
+            };
+        }
+
+        permit.held = true;
+        return permit;
+    }
+
+    @Override
+    public void execute(Runnable command) {
+        if (!permits.tryAcquire()) {
+            reject(command);
+            return;
+        }
+
+        try {
+            delegate.execute(() -> {
+                Permit permit = new Permit();
+                CURRENT.set(permit);
+
+                try {
+                    command.run();
+                } finally {
+                    CURRENT.remove();
+
+                    if (!permit.held) {
+                        permit.run();
+                    }
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            permits.release();
+            reject(command);
+        }
+    }
+
+    private void reject(Runnable command) {
+        boolean[] flag = new boolean[1];
+        OVERLOADED.set(flag);
+
+        try {
+            command.run();
+        } finally {
+            OVERLOADED.remove();
+
+            if (flag[0]) {
+                rejected.increment();
+            }
+        }
+    }
+
+    @Override
+    public String describe() {
+        return name + " (máx. " + maxInFlight + " requisições em andamento)";
+    }
+
+    @Override
+    public int inFlight() {
+        return maxInFlight - permits.availablePermits();
+    }
+
+    @Override
+    public long rejected() {
+        return rejected.sum();
+    }
+
+    /**
+     * Vaga de uma requisição; liberar mais de uma vez não tem efeito.
+     */
+    private final class Permit implements Runnable {
+
+        private final AtomicBoolean released = new AtomicBoolean();
+        private boolean held;
+
+        @Override
+        public void run() {
+            if (released.compareAndSet(false, true)) {
+                permits.release();
+            }
+        }
+    }
+
+    @Override
+    public void shutdown() {
+        delegate.shutdown();
+
+        try {
+            if (!delegate.awaitTermination(5, TimeUnit.SECONDS)) {
+                delegate.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            delegate.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.projeto.server;
+
+import com.sun.net.httpserver.Filter;
+import com.sun.net.httpserver.HttpExchange;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Responde 503 para as requisições que o {@link BoundedExecutor} recusou.
+ */
+public class OverloadFilter extends Filter {
+
+    public static final OverloadFilter INSTANCE = new OverloadFilter();
+
+    private static final byte[] BODY =
+            "{\"error\": \"Servidor sobrecarregado, tente novamente\"}".getBytes(StandardCharsets.UTF_8);
+
+    private OverloadFilter() {
+    }
+
+    @Override
+    public void doFilter(HttpExchange exchange, Chain chain) throws IOException {
+        if (!BoundedExecutor.shed()) {
+            chain.doFilter(exchange);
+            return;
+        }
+
+        exchange.getRequestBody().close();
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=UTF-8");
+        exchange.getResponseHeaders().set("Retry-After", "1");
+        exchange.sendResponseHeaders(503, BODY.length);
+
+        try (OutputStream os = exchange.getResponseBody()) {
+            os.write(BODY);
+        }
+    }
+
+    @Override
+    public String description() {
+        return "Rejeita requisições com 503 quando o servidor está sobrecarregado";
+    }
+}
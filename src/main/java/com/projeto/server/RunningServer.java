@@ -0,0 +1,27 @@
+package com.projeto.server;
+
+import com.projeto.config.AppContext;
+import com.projeto.database.DatabaseConnection;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * Servidor já iniciado por {@code Main.start}: dá acesso à porta real
+ * (útil com porta 0) e encerra tudo na ordem certa.
+ */
+public record RunningServer(HttpServer server, ServerExecutor executor, AppContext context) {
+
+    public int port() {
+        return server.getAddress().getPort();
+    }
+
+    public void stop() {
+        // streams SSE só terminam quando o registro de mudanças fecha
+        context.getChangeLog().close();
+        server.stop(0);
+        if (executor != null) {
+            executor.shutdown();
+        }
+        context.close();
+        DatabaseConnection.closeConnection();
+    }
+}
@@ -0,0 +1,14 @@
+package com.projeto.server;
+
+import java.util.concurrent.Executor;
+
+public interface ServerExecutor extends Executor {
+
+    String describe();
+
+    int inFlight();
+
+    long rejected();
+
+    void shutdown();
+}
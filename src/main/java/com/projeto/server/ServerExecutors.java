@@ -0,0 +1,68 @@
+package com.projeto.server;
+
+import com.projeto.config.AppConfig;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Modelos de execução do HttpServer, escolhidos por {@code server.mode}:
+ * <ul>
+ *     <li>{@code virtual}: uma virtual thread por requisição;</li>
+ *     <li>{@code pool}: pool fixo de threads de plataforma com fila limitada;</li>
+ *     <li>{@code single}: thread única do dispatcher (comportamento original).</li>
+ * </ul>
+ */
+public final class ServerExecutors {
+
+    private ServerExecutors() {
+    }
+
+    /**
+     * @return o executor configurado, ou {@code null} no modo {@code single}
+     */
+    public static ServerExecutor fromConfig() {
+        String mode = AppConfig.get("server.mode", "virtual");
+        int cores = Runtime.getRuntime().availableProcessors();
+
+        switch (mode) {
+            case "virtual": {
+                int maxInFlight = AppConfig.getInt("server.maxInFlight", 10_000);
+                return new BoundedExecutor("virtual threads",
+                        Executors.newThreadPerTaskExecutor(
+                                Thread.ofVirtual().name("http-virtual-", 0).factory()),
+                        maxInFlight);
+            }
+            case "pool": {
+                int threads = AppConfig.getInt("server.threads", cores * 2);
+                int queueDepth = AppConfig.getInt("server.queueDepth", 256);
+                ThreadPoolExecutor executor = new ThreadPoolExecutor(
+                        threads, threads,
+                        60, TimeUnit.SECONDS,
+                        new LinkedBlockingQueue<>(queueDepth),
+                        namedThreads("http-worker-"));
+                executor.allowCoreThreadTimeOut(true);
+                return new BoundedExecutor("pool de " + threads + " threads", executor, threads + queueDepth);
+            }
+            case "single":
+                return null;
+            default:
+                throw new IllegalArgumentException(
+                        "server.mode inválido: " + mode + " (use virtual, pool ou single)");
+        }
+    }
+
+    private static ThreadFactory namedThreads(String prefix) {
+        AtomicInteger counter = new AtomicInteger();
+
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
@@ -0,0 +1,42 @@
+package com.projeto.service;
+
+import com.projeto.model.Order;
+import com.projeto.model.OrderItem;
+import com.projeto.model.OrderStatus;
+import com.projeto.repository.OrderPage;
+import com.projeto.repository.OrderQuery;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Versão assíncrona do {@link OrderService}: o JDBC roda no executor de
+ * banco e quem chama só encadeia o resultado. Falhas chegam no future
+ * (SQLException, {@link com.projeto.repository.NotFoundException},
+ * IllegalStateException de transição inválida, RejectedExecutionException
+ * com o executor cheio).
+ */
+public interface AsyncOrderService {
+
+    CompletableFuture<Order> createOrder(String customerName);
+
+    CompletableFuture<OrderItem> addItem(Long orderId, String product, int quantity, long unitPriceCents);
+
+    CompletableFuture<List<OrderItem>> addItems(Long orderId, List<OrderItem> items);
+
+    CompletableFuture<OrderPage> listOrders(OrderQuery query);
+
+    CompletableFuture<Optional<Order>> findOrderById(Long id);
+
+    CompletableFuture<OptionalLong> findOrderVersion(Long id);
+
+    CompletableFuture<List<OrderItem>> listItems(Long orderId);
+
+    CompletableFuture<Order> updateOrderStatus(Long orderId, OrderStatus newStatus);
+
+    CompletableFuture<Void> deleteOrder(Long orderId);
+
+    CompletableFuture<Void> deleteItem(Long itemId);
+}
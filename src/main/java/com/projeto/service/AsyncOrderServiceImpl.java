@@ -0,0 +1,139 @@
+package com.projeto.service;
+
+import com.projeto.cache.OrderCache;
+import com.projeto.database.DatabaseExecutor;
+import com.projeto.model.Order;
+import com.projeto.model.OrderItem;
+import com.projeto.model.OrderStatus;
+import com.projeto.repository.OrderItemRepository;
+import com.projeto.repository.OrderPage;
+import com.projeto.repository.OrderQuery;
+import com.projeto.repository.OrderRepository;
+import com.projeto.repository.VersionedItems;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Executa as operações do {@link OrderService} no {@link DatabaseExecutor}.
+ * Leituras atendidas pelo cache completam na hora, sem passar pelo executor.
+ */
+public class AsyncOrderServiceImpl implements AsyncOrderService {
+
+    private final OrderService orders;
+    private final OrderRepository orderRepo;
+    private final OrderItemRepository itemRepo;
+    private final OrderCache cache;
+    private final DatabaseExecutor db;
+
+    public AsyncOrderServiceImpl(OrderService orders, OrderRepository orderRepo, OrderItemRepository itemRepo,
+                                 OrderCache cache, DatabaseExecutor db) {
+        this.orders = orders;
+        this.orderRepo = orderRepo;
+        this.itemRepo = itemRepo;
+        this.cache = cache;
+        this.db = db;
+    }
+
+    @Override
+    public CompletableFuture<Order> createOrder(String customerName) {
+        return db.supply(() -> orders.createOrder(customerName));
+    }
+
+    @Override
+    public CompletableFuture<OrderItem> addItem(Long orderId, String product, int quantity, long unitPriceCents) {
+        return db.supply(() -> orders.addItem(orderId, product, quantity, unitPriceCents));
+    }
+
+    @Override
+    public CompletableFuture<List<OrderItem>> addItems(Long orderId, List<OrderItem> items) {
+        return db.supply(() -> orders.addItems(orderId, items));
+    }
+
+    @Override
+    public CompletableFuture<OrderPage> listOrders(OrderQuery query) {
+        return db.supply(() -> orders.listOrders(query));
+    }
+
+    /**
+     * Na falta do cache, a linha do pedido e os itens são lidos em paralelo,
+     * em duas conexões. A consulta dos itens traz a versão do pedido do mesmo
+     * instante; se ela não bate com a da linha (uma escrita aconteceu entre as
+     * duas leituras), o pedido é recarregado pelo caminho sequencial.
+     */
+    @Override
+    public CompletableFuture<Optional<Order>> findOrderById(Long id) {
+        Order cached = cache.get(id);
+
+        if (cached != null) {
+            return CompletableFuture.completedFuture(Optional.of(cached));
+        }
+
+        long epoch = cache.epoch(id);
+        CompletableFuture<Optional<Order>> row = db.supply(() -> orderRepo.findById(id));
+        CompletableFuture<Optional<VersionedItems>> items = db.supply(() -> itemRepo.findVersionedByOrderId(id));
+
+        return row.thenCombine(items, (orderOpt, itemsOpt) -> {
+            if (orderOpt.isEmpty()) {
+                return Optional.<Order>empty();
+            }
+
+            Order order = orderOpt.get();
+
+            if (itemsOpt.isEmpty() || itemsOpt.get().orderVersion() != order.getVersion()) {
+                return null;
+            }
+
+            order.setItems(itemsOpt.get().items());
+            cache.put(id, order, epoch);
+            return Optional.of(order);
+        }).thenCompose(loaded -> loaded != null
+                ? CompletableFuture.completedFuture(loaded)
+                : db.supply(() -> orders.findOrderById(id)));
+    }
+
+    @Override
+    public CompletableFuture<OptionalLong> findOrderVersion(Long id) {
+        Order cached = cache.get(id);
+
+        if (cached != null) {
+            return CompletableFuture.completedFuture(OptionalLong.of(cached.getVersion()));
+        }
+
+        return db.supply(() -> orderRepo.findVersion(id));
+    }
+
+    @Override
+    public CompletableFuture<List<OrderItem>> listItems(Long orderId) {
+        Order cached = cache.get(orderId);
+
+        if (cached != null) {
+            return CompletableFuture.completedFuture(cached.getItems());
+        }
+
+        return db.supply(() -> itemRepo.findByOrderId(orderId));
+    }
+
+    @Override
+    public CompletableFuture<Order> updateOrderStatus(Long orderId, OrderStatus newStatus) {
+        return db.supply(() -> orders.updateOrderStatus(orderId, newStatus));
+    }
+
+    @Override
+    public CompletableFuture<Void> deleteOrder(Long orderId) {
+        return db.supply(() -> {
+            orders.deleteOrder(orderId);
+            return null;
+        });
+    }
+
+    @Override
+    public CompletableFuture<Void> deleteItem(Long itemId) {
+        return db.supply(() -> {
+            orders.deleteItem(itemId);
+            return null;
+        });
+    }
+}
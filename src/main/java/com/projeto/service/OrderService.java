@@ -2,24 +2,38 @@ package com.projeto.service;
 
 import com.projeto.model.Order;
 import com.projeto.model.OrderItem;
+import com.projeto.model.OrderStatus;
+import com.projeto.repository.OrderPage;
+import com.projeto.repository.OrderQuery;
+import com.projeto.repository.RowCallback;
 
+import java.io.IOException;
 import java.sql.SQLException;
 import java.util.List;
 import java.util.Optional;
+import java.util.OptionalLong;
 
 public interface OrderService {
     
     Order createOrder(String customerName) throws SQLException;
     
-    OrderItem addItem(Long orderId, String product, int quantity, double unitPrice) throws SQLException;
+    OrderItem addItem(Long orderId, String product, int quantity, long unitPriceCents) throws SQLException;
+    
+    List<OrderItem> addItems(Long orderId, List<OrderItem> items) throws SQLException;
     
     List<Order> listOrders() throws SQLException;
     
+    OrderPage listOrders(OrderQuery query) throws SQLException;
+    
+    void streamOrders(OrderQuery query, RowCallback<Order> callback) throws SQLException, IOException;
+    
     Optional<Order> findOrderById(Long id) throws SQLException;
     
+    OptionalLong findOrderVersion(Long id) throws SQLException;
+    
     List<OrderItem> listItems(Long orderId) throws SQLException;
     
-    Order updateOrderStatus(Long orderId, String newStatus) throws SQLException;
+    Order updateOrderStatus(Long orderId, OrderStatus newStatus) throws SQLException;
     
     void deleteOrder(Long orderId) throws SQLException;
     
@@ -1,156 +1,392 @@
 package com.projeto.service;
 
+import com.projeto.cache.OrderCache;
+import com.projeto.changes.ChangeLog;
+import com.projeto.changes.ChangeType;
+import com.projeto.database.DatabaseConnection;
+import com.projeto.logging.Log;
+import com.projeto.logging.Logger;
 import com.projeto.model.Order;
 import com.projeto.model.OrderItem;
+import com.projeto.model.OrderStatus;
+import com.projeto.repository.NotFoundException;
 import com.projeto.repository.OrderItemRepository;
+import com.projeto.repository.OrderPage;
+import com.projeto.repository.OrderQuery;
 import com.projeto.repository.OrderRepository;
+import com.projeto.repository.RowCallback;
 
+import java.io.IOException;
+import java.sql.Connection;
 import java.sql.SQLException;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.OptionalLong;
 
 public class OrderServiceImpl implements OrderService {
+
+    private static final Logger LOG = Log.getLogger(OrderServiceImpl.class);
+    
+    private static final int STREAM_CHUNK_SIZE = 256;
     
     private final OrderRepository orderRepo;
     private final OrderItemRepository itemRepo;
+    private final OrderCache cache;
+    private final ChangeLog changes;
     
     public OrderServiceImpl() {
-        this.orderRepo = new OrderRepository();
-        this.itemRepo = new OrderItemRepository();
+        this(new OrderRepository(), new OrderItemRepository(), new OrderCache(0, 0));
+    }
+    
+    public OrderServiceImpl(OrderRepository orderRepo, OrderItemRepository itemRepo, OrderCache cache) {
+        this(orderRepo, itemRepo, cache, new ChangeLog(1024));
+    }
+    
+    /**
+     * Toda escrita confirmada é publicada em {@code changes} depois do commit.
+     */
+    public OrderServiceImpl(OrderRepository orderRepo, OrderItemRepository itemRepo, OrderCache cache, ChangeLog changes) {
+        this.orderRepo = orderRepo;
+        this.itemRepo = itemRepo;
+        this.cache = cache;
+        this.changes = changes;
     }
     
     @Override
     public Order createOrder(String customerName) throws SQLException {
-        Order order = new Order(customerName);
-        return orderRepo.save(order);
+        Order order = orderRepo.save(new Order(customerName));
+        changes.append(ChangeType.ORDER_CREATED, order.getId(), order.getVersion(), order, null);
+        return order;
     }
     
     @Override
-    public OrderItem addItem(Long orderId, String product, int quantity, double unitPrice) throws SQLException {
-        OrderItem item = new OrderItem(orderId, product, quantity, unitPrice);
-        OrderItem savedItem = itemRepo.save(item);
+    public OrderItem addItem(Long orderId, String product, int quantity, long unitPriceCents) throws SQLException {
+        OrderItem item = new OrderItem(orderId, product, quantity, unitPriceCents);
         
-        updateOrderTotal(orderId);
+        // o UPDATE vem primeiro: trava a linha do pedido e já confirma que ele existe
+        ItemWrite<OrderItem> write = DatabaseConnection.inTransaction(conn -> {
+            Order order = orderRepo.adjustTotal(conn, orderId, item.getSubtotalCents())
+                    .orElseThrow(() -> new NotFoundException("Pedido não encontrado: " + orderId));
+            
+            return new ItemWrite<>(order, itemRepo.save(conn, item));
+        });
         
-        return savedItem;
+        cache.invalidate(orderId);
+        append(ChangeType.ITEMS_ADDED, withoutItems(write.order()), List.of(write.result()));
+        return write.result();
+    }
+    
+    /**
+     * Insere todos os itens numa única transação e ajusta o total do pedido
+     * uma vez só, com a soma dos subtotais.
+     */
+    @Override
+    public List<OrderItem> addItems(Long orderId, List<OrderItem> items) throws SQLException {
+        if (items.isEmpty()) {
+            throw new IllegalArgumentException("Nenhum item enviado");
+        }
+        
+        long total = 0;
+        for (OrderItem item : items) {
+            item.setOrderId(orderId);
+            total = Math.addExact(total, item.getSubtotalCents());
+        }
+        
+        long delta = total;
+        
+        ItemWrite<List<OrderItem>> write = DatabaseConnection.inTransaction(conn -> {
+            Order order = orderRepo.adjustTotal(conn, orderId, delta)
+                    .orElseThrow(() -> new NotFoundException("Pedido não encontrado: " + orderId));
+            
+            return new ItemWrite<>(order, itemRepo.saveAll(conn, items));
+        });
+        
+        cache.invalidate(orderId);
+        append(ChangeType.ITEMS_ADDED, withoutItems(write.order()), List.copyOf(write.result()));
+        return write.result();
     }
     
     @Override
     public List<Order> listOrders() throws SQLException {
         List<Order> orders = orderRepo.findAll();
+        attachItems(orders);
+        return orders;
+    }
+    
+    /**
+     * Sem {@code includeItems}, {@code items} fica nulo (e sai do JSON), para
+     * não ser confundido com um pedido sem itens.
+     */
+    @Override
+    public OrderPage listOrders(OrderQuery query) throws SQLException {
+        OrderPage page = orderRepo.findPage(query);
         
-        for (Order order : orders) {
-            List<OrderItem> items = itemRepo.findByOrderId(order.getId());
-            order.setItems(items);
+        if (query.includeItems()) {
+            attachItems(page.orders());
+        } else {
+            page.orders().forEach(OrderServiceImpl::withoutItems);
         }
         
-        return orders;
+        return page;
     }
     
+    /**
+     * Entrega os pedidos um a um. Os itens são carregados em blocos de
+     * {@value #STREAM_CHUNK_SIZE} pedidos, então só um bloco fica em memória por vez.
+     * Tudo roda numa única conexão: com o pool cheio de streams, uma segunda
+     * conexão para os itens travaria todos eles.
+     */
+    @Override
+    public void streamOrders(OrderQuery query, RowCallback<Order> callback) throws SQLException, IOException {
+        if (!query.includeItems()) {
+            orderRepo.streamAll(query, order -> callback.accept(withoutItems(order)));
+            return;
+        }
+        
+        List<Order> chunk = new ArrayList<>(STREAM_CHUNK_SIZE);
+        
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            orderRepo.streamAll(conn, query, order -> {
+                chunk.add(order);
+                
+                if (chunk.size() == STREAM_CHUNK_SIZE) {
+                    flushChunk(conn, chunk, callback);
+                }
+            });
+            
+            flushChunk(conn, chunk, callback);
+        }
+    }
+    
+    private void flushChunk(Connection conn, List<Order> chunk, RowCallback<Order> callback)
+            throws SQLException, IOException {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        
+        Map<Long, List<OrderItem>> itemsByOrder = itemRepo.findByOrderIds(conn, idsOf(chunk));
+        
+        for (Order order : chunk) {
+            order.setItems(itemsByOrder.getOrDefault(order.getId(), new ArrayList<>()));
+        }
+        
+        for (Order order : chunk) {
+            callback.accept(order);
+        }
+        
+        chunk.clear();
+    }
+    
+    /**
+     * Leitura pelo cache; em caso de falta, monta o pedido a partir do banco
+     * e guarda o resultado. O pedido devolvido pode ser compartilhado e não
+     * deve ser alterado.
+     */
     @Override
     public Optional<Order> findOrderById(Long id) throws SQLException {
+        Order cached = cache.get(id);
+        
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        
+        long epoch = cache.epoch(id);
+        Optional<Order> orderOpt = loadOrder(id);
+        orderOpt.ifPresent(order -> cache.put(id, order, epoch));
+        
+        return orderOpt;
+    }
+    
+    private Optional<Order> loadOrder(Long id) throws SQLException {
         Optional<Order> orderOpt = orderRepo.findById(id);
         
         if (orderOpt.isPresent()) {
-            Order order = orderOpt.get();
-            List<OrderItem> items = itemRepo.findByOrderId(id);
-            order.setItems(items);
-            return Optional.of(order);
+            attachItems(List.of(orderOpt.get()));
         }
         
-        return Optional.empty();
+        return orderOpt;
     }
     
+    /**
+     * Versão atual do pedido, para ETag: vem do cache quando o pedido está
+     * lá, senão de uma consulta de uma coluna, sem carregar itens.
+     */
     @Override
-    public List<OrderItem> listItems(Long orderId) throws SQLException {
-        return itemRepo.findByOrderId(orderId);
+    public OptionalLong findOrderVersion(Long id) throws SQLException {
+        Order cached = cache.get(id);
+        
+        if (cached != null) {
+            return OptionalLong.of(cached.getVersion());
+        }
+        
+        return orderRepo.findVersion(id);
     }
     
     @Override
-    public Order updateOrderStatus(Long orderId, String newStatus) throws SQLException {
-        Optional<Order> orderOpt = orderRepo.findById(orderId);
+    public List<OrderItem> listItems(Long orderId) throws SQLException {
+        Order cached = cache.get(orderId);
         
-        if (orderOpt.isEmpty()) {
-            throw new SQLException("Pedido não encontrado: " + orderId);
+        if (cached != null) {
+            return cached.getItems();
         }
         
-        Order order = orderOpt.get();
-        order.setStatus(newStatus);
-        return orderRepo.update(order);
+        return itemRepo.findByOrderId(orderId);
     }
     
+    /**
+     * Único ponto de mudança de status: confirmar exige itens, os demais
+     * destinos seguem {@link OrderStatus#allowedSources()}.
+     */
     @Override
-    public void deleteOrder(Long orderId) throws SQLException {
-        itemRepo.deleteByOrderId(orderId);
-        orderRepo.deleteById(orderId);
-        System.out.println("❌ Pedido " + orderId + " deletado completamente");
+    public Order updateOrderStatus(Long orderId, OrderStatus newStatus) throws SQLException {
+        return switch (newStatus) {
+            case CONFIRMED -> confirmOrder(orderId);
+            case CANCELLED -> cancelOrder(orderId);
+            case PENDING -> transition(orderId, newStatus, false);
+        };
     }
     
     @Override
-    public void deleteItem(Long itemId) throws SQLException {
-        Optional<OrderItem> itemOpt = itemRepo.findById(itemId);
+    public void deleteOrder(Long orderId) throws SQLException {
+        Order deleted;
         
-        if (itemOpt.isEmpty()) {
-            throw new SQLException("Item não encontrado: " + itemId);
+        try {
+            deleted = DatabaseConnection.inTransaction(conn -> {
+                itemRepo.deleteByOrderId(conn, orderId);
+                return orderRepo.deleteReturning(conn, orderId)
+                        .orElseThrow(() -> new NotFoundException("Pedido não encontrado: " + orderId));
+            });
+        } finally {
+            cache.invalidate(orderId);
         }
         
-        OrderItem item = itemOpt.get();
-        Long orderId = item.getOrderId();
+        changes.append(ChangeType.ORDER_DELETED, orderId, deleted.getVersion(), null, null);
+        LOG.info("Pedido deletado com itens", "orderId", orderId);
+    }
+    
+    @Override
+    public void deleteItem(Long itemId) throws SQLException {
+        ItemWrite<OrderItem> write = DatabaseConnection.inTransaction(conn -> {
+            OrderItem item = itemRepo.deleteReturning(conn, itemId)
+                    .orElseThrow(() -> new NotFoundException("Item não encontrado: " + itemId));
+            
+            Order order = orderRepo.adjustTotal(conn, item.getOrderId(), -item.getSubtotalCents()).orElse(null);
+            return new ItemWrite<>(order, item);
+        });
         
-        itemRepo.deleteById(itemId);
+        OrderItem deleted = write.result();
+        cache.invalidate(deleted.getOrderId());
         
-        updateOrderTotal(orderId);
+        Order order = withoutItems(write.order());
+        changes.append(ChangeType.ITEM_DELETED, deleted.getOrderId(), order != null ? order.getVersion() : 0,
+                order, List.of(deleted));
     }
     
     @Override
     public Order confirmOrder(Long orderId) throws SQLException {
-        Optional<Order> orderOpt = findOrderById(orderId);
+        return transition(orderId, OrderStatus.CONFIRMED, true);
+    }
+    
+    @Override
+    public Order cancelOrder(Long orderId) throws SQLException {
+        return transition(orderId, OrderStatus.CANCELLED, false);
+    }
+    
+    /**
+     * Os itens são lidos na mesma transação da troca de status: com a linha do
+     * pedido travada, eles são exatamente os da versão publicada no evento.
+     */
+    private Order transition(Long orderId, OrderStatus target, boolean requireItems) throws SQLException {
+        Optional<Order> updated = DatabaseConnection.inTransaction(conn -> {
+            Optional<Order> changed = orderRepo.transition(conn, orderId, target, requireItems);
+            
+            if (changed.isPresent()) {
+                Order order = changed.get();
+                order.setItems(itemRepo.findByOrderIds(conn, List.of(orderId))
+                        .getOrDefault(orderId, new ArrayList<>()));
+            }
+            
+            return changed;
+        });
         
-        if (orderOpt.isEmpty()) {
-            throw new SQLException("Pedido não encontrado: " + orderId);
+        if (updated.isEmpty()) {
+            throw rejection(orderId, target);
         }
         
-        Order order = orderOpt.get();
+        cache.invalidate(orderId);
         
-        if (order.getItems().isEmpty()) {
-            throw new IllegalStateException("Não é possível confirmar pedido sem itens");
-        }
-        
-        if (!"PENDING".equals(order.getStatus())) {
-            throw new IllegalStateException("Apenas pedidos PENDING podem ser confirmados");
+        Order order = updated.get();
+        append(ChangeType.STATUS_CHANGED, order, null);
+        return order;
+    }
+    
+    private void append(ChangeType type, Order order, List<OrderItem> items) {
+        changes.append(type, order.getId(), order.getVersion(), order, items);
+    }
+    
+    /**
+     * Cabeçalho do pedido para os eventos de item, que já levam os itens alterados.
+     */
+    private static Order withoutItems(Order order) {
+        if (order != null) {
+            order.setItems(null);
         }
-        
-        order.setStatus("CONFIRMED");
-        return orderRepo.update(order);
+        return order;
     }
     
-    @Override
-    public Order cancelOrder(Long orderId) throws SQLException {
-        Optional<Order> orderOpt = findOrderById(orderId);
+    /**
+     * Só depois de o UPDATE condicional não alterar nada é que o pedido é
+     * lido, para explicar o motivo da recusa.
+     */
+    private IllegalStateException rejection(Long orderId, OrderStatus target) throws SQLException {
+        OrderStatus current = orderRepo.findById(orderId)
+                .orElseThrow(() -> new NotFoundException("Pedido não encontrado: " + orderId))
+                .getStatus();
         
-        if (orderOpt.isEmpty()) {
-            throw new SQLException("Pedido não encontrado: " + orderId);
+        if (target == OrderStatus.CONFIRMED && current == OrderStatus.PENDING) {
+            return new IllegalStateException("Não é possível confirmar pedido sem itens");
         }
         
-        Order order = orderOpt.get();
+        if (target == OrderStatus.CONFIRMED) {
+            return new IllegalStateException("Apenas pedidos PENDING podem ser confirmados");
+        }
         
-        if ("CANCELLED".equals(order.getStatus())) {
-            throw new IllegalStateException("Pedido já está cancelado");
+        if (target == current) {
+            return new IllegalStateException("Pedido já está " + current);
         }
         
-        order.setStatus("CANCELLED");
-        return orderRepo.update(order);
+        return new IllegalStateException("Transição de status inválida: " + current + " → " + target);
     }
     
-    private void updateOrderTotal(Long orderId) throws SQLException {
-        Optional<Order> orderOpt = orderRepo.findById(orderId);
+    /**
+     * Preenche os itens de todos os pedidos com uma única ida ao banco
+     * (por bloco de ids), em vez de uma consulta por pedido.
+     */
+    private void attachItems(List<Order> orders) throws SQLException {
+        if (orders.isEmpty()) {
+            return;
+        }
         
-        if (orderOpt.isPresent()) {
-            Order order = orderOpt.get();
-            List<OrderItem> items = itemRepo.findByOrderId(orderId);
-            order.setItems(items);
-            order.calculateTotal();
-            orderRepo.update(order);
+        Map<Long, List<OrderItem>> itemsByOrder = itemRepo.findByOrderIds(idsOf(orders));
+        
+        for (Order order : orders) {
+            order.setItems(itemsByOrder.getOrDefault(order.getId(), new ArrayList<>()));
+        }
+    }
+    
+    private static List<Long> idsOf(List<Order> orders) {
+        List<Long> ids = new ArrayList<>(orders.size());
+        for (Order order : orders) {
+            ids.add(order.getId());
         }
+        return ids;
+    }
+    
+    /**
+     * Resultado de uma escrita de itens junto com o pedido já com o total ajustado.
+     */
+    private record ItemWrite<T>(Order order, T result) {
     }
 }